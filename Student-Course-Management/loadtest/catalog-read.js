@@ -0,0 +1,48 @@
+// Read load on the cached catalog endpoints.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 loadtest/catalog-read.js
+//
+// The "fresh" scenario sends no validator, so every request is answered from the serialized
+// response cache (gzip); "revalidate" replays the ETag it got and should see only 304s.
+// Compare http_req_duration per scenario against a build without the cache.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const PATHS = ['/api/courses', '/api/categories', '/api/courses?difficulty=BEGINNER', '/api/courses?limit=20'];
+
+export const options = {
+    scenarios: {
+        fresh: { executor: 'constant-vus', vus: 50, duration: '1m', exec: 'fresh' },
+        revalidate: { executor: 'constant-vus', vus: 50, duration: '1m', exec: 'revalidate', startTime: '1m' },
+    },
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        'http_req_duration{scenario:fresh}': ['p(95)<200'],
+        'http_req_duration{scenario:revalidate}': ['p(95)<50'],
+    },
+};
+
+const etags = {};
+
+function pick() {
+    return PATHS[Math.floor(Math.random() * PATHS.length)];
+}
+
+export function fresh() {
+    const res = http.get(BASE_URL + pick(), { headers: { 'Accept-Encoding': 'gzip' } });
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
+
+export function revalidate() {
+    const path = pick();
+    const headers = { 'Accept-Encoding': 'gzip' };
+    if (etags[path]) {
+        headers['If-None-Match'] = etags[path];
+    }
+    const res = http.get(BASE_URL + path, { headers });
+    check(res, { 'status 200 or 304': (r) => r.status === 200 || r.status === 304 });
+    if (res.headers['Etag']) {
+        etags[path] = res.headers['Etag'];
+    }
+}
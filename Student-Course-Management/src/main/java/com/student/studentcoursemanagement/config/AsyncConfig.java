@@ -1,5 +1,6 @@
 package com.student.studentcoursemanagement.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -11,25 +12,71 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig {
 
+    /**
+     * Worker pool of the email outbox. The outbox poller only leases as many jobs as there are
+     * threads, so nothing queues here; if it ever does, the task is rejected and the job stays in
+     * MongoDB for the next poll instead of running on the caller's thread.
+     */
     @Bean(name = "emailTaskExecutor")
-    public Executor emailTaskExecutor() {
+    public ThreadPoolTaskExecutor emailTaskExecutor(@Value("${email.outbox.workers:8}") int workers) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
-        // Core pool size - number of threads to keep alive
-        executor.setCorePoolSize(5);
+        // Fixed number of workers sending to SendGrid
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
 
-        // Maximum pool size - maximum number of threads
-        executor.setMaxPoolSize(10);
-
-        // Queue capacity - tasks waiting for execution
-        executor.setQueueCapacity(100);
+        // Small buffer only; backpressure lives in the outbox collection
+        executor.setQueueCapacity(workers);
 
         // Thread name prefix for easy identification in logs
-        executor.setThreadNamePrefix("email-async-");
+        executor.setThreadNamePrefix("email-outbox-");
+
+        // AbortPolicy - never fall back to running email work on the caller's thread
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * High-priority lane for OTP emails, kept apart from emailTaskExecutor so a course
+     * notification run cannot delay a user waiting for a verification code.
+     */
+    @Bean(name = "otpEmailExecutor")
+    public Executor otpEmailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("otp-email-");
+
+        // AbortPolicy - a rejected OTP is reported as FAILED instead of blocking the request thread
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Dedicated lane for BCrypt work (about 100 ms of CPU per hash).
+     * Bounded on both threads and queue so a login burst cannot occupy every request thread;
+     * submissions beyond the queue are rejected and answered with 503.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${security.password.hash.threads:0}") int threads,
+            @Value("${security.password.hash.queue.capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        // Default to half the cores, leaving the rest of the CPU to normal requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
 
-        // What to do when queue is full and max threads reached
-        // CallerRunsPolicy - run the task in the caller's thread (prevents rejection)
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        // AbortPolicy - fail fast instead of running BCrypt on the request thread
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
 
         executor.initialize();
         return executor;
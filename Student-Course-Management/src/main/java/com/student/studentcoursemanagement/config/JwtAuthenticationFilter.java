@@ -2,6 +2,9 @@ package com.student.studentcoursemanagement.config;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,10 +15,13 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.student.studentcoursemanagement.model.User;
-import com.student.studentcoursemanagement.repo.UserRepo;
+import com.student.studentcoursemanagement.model.UserRole;
+import com.student.studentcoursemanagement.service.PrincipalCacheService;
+import com.student.studentcoursemanagement.service.PrincipalCacheService.CachedPrincipal;
+import com.student.studentcoursemanagement.service.TokenRevocationService;
 import com.student.studentcoursemanagement.util.JwtUtil;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,11 +30,22 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Map<UserRole, GrantedAuthority> AUTHORITIES = new EnumMap<>(UserRole.class);
+
+    static {
+        for (UserRole role : UserRole.values()) {
+            AUTHORITIES.put(role, new SimpleGrantedAuthority("ROLE_" + role.name()));
+        }
+    }
+
     @Autowired
     private JwtUtil jwtUtil;
     
     @Autowired
-    private UserRepo userRepository;
+    private PrincipalCacheService principalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -40,18 +57,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
             
             try {
-                if (jwtUtil.validateToken(token)) {
-                    String email = jwtUtil.extractEmail(token);
-                    String userId = jwtUtil.extractUserId(token);
+                // Verify the token once and read every claim from the same parse
+                Claims claims = jwtUtil.parseVerifiedClaims(token);
+                if (claims != null) {
+                    String email = claims.getSubject();
+                    String userId = claims.get(JwtUtil.CLAIM_USER_ID, String.class);
+                    List<UserRole> roles = jwtUtil.getRoles(claims);
+                    Long tokenVersion = jwtUtil.getTokenVersion(claims);
                     
-                    User user = userRepository.findByEmail(email);
+                    Collection<GrantedAuthority> authorities = null;
+                    if (userId != null && roles != null && tokenVersion != null) {
+                        // Stateless path: roles come from the token, only revocations are checked
+                        if (!tokenRevocationService.isRevoked(userId, tokenVersion)) {
+                            authorities = roles.stream().map(AUTHORITIES::get).collect(Collectors.toList());
+                        }
+                    } else if (userId != null) {
+                        // Tokens issued before roles were embedded: resolve roles via the principal cache
+                        CachedPrincipal principal = principalCache.getPrincipal(userId);
+                        if (principal.isExists() && principal.getEmail().equals(email)) {
+                            authorities = principal.getAuthorities();
+                        }
+                    }
                     
-                    if (user != null && user.getId().equals(userId)) {
-                        // Convert UserRole enum to GrantedAuthority
-                        Collection<GrantedAuthority> authorities = user.getRoles().stream()
-                                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
-                                .collect(Collectors.toList());
-                        
+                    if (authorities != null) {
                         // Create authentication token with user ID as principal
                         UsernamePasswordAuthenticationToken authToken = 
                                 new UsernamePasswordAuthenticationToken(userId, null, authorities);
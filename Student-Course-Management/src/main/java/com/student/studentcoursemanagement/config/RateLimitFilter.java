@@ -0,0 +1,261 @@
+package com.student.studentcoursemanagement.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.studentcoursemanagement.dto.ApiResponse;
+import com.student.studentcoursemanagement.util.RateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Throttles the endpoints that burn BCrypt CPU or SendGrid quota, per client IP and per email
+ * in the request body. Runs ahead of JwtAuthenticationFilter; rejected requests get 429 with Retry-After.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Request bodies of the throttled routes are tiny; larger bodies are rejected with 413
+    private static final int MAX_BODY_BYTES = 8192;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rate.limit.enabled:true}")
+    private boolean enabled;
+
+    // Budgets are requests per minute
+    @Value("${rate.limit.login.per.ip:20}")
+    private int loginPerIp;
+
+    @Value("${rate.limit.login.per.email:5}")
+    private int loginPerEmail;
+
+    @Value("${rate.limit.otp.per.ip:10}")
+    private int otpPerIp;
+
+    @Value("${rate.limit.otp.per.email:3}")
+    private int otpPerEmail;
+
+    @Value("${rate.limit.forgot.password.per.ip:5}")
+    private int forgotPerIp;
+
+    @Value("${rate.limit.forgot.password.per.email:2}")
+    private int forgotPerEmail;
+
+    private final Map<String, Route> routes = new HashMap<>();
+
+    @PostConstruct
+    public void initRoutes() {
+        Route login = new Route("login", loginPerIp, loginPerEmail);
+        Route otp = new Route("otp", otpPerIp, otpPerEmail);
+        Route forgot = new Route("forgot-password", forgotPerIp, forgotPerEmail);
+
+        routes.put("/api/auth/login", login);
+        routes.put("/api/auth/verify-password", login);
+        routes.put("/api/otp/send", otp);
+        routes.put("/api/otp/resend", otp);
+        routes.put("/api/otp/send-login", otp);
+        routes.put("/api/auth/forgot-password", forgot);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !routes.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Route route = routes.get(request.getRequestURI());
+
+        long retryAfter = rateLimiter.tryAcquire(route.name + ":ip:" + clientIp(request), route.perIp);
+        if (retryAfter > 0) {
+            reject(route, response, retryAfter);
+            return;
+        }
+
+        // Read the body whatever Content-Length claims (chunked bodies have none), so the
+        // per-email budget cannot be bypassed by sending a large or unsized body
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            refuse(route, response, 413, "Request body too large");
+            return;
+        }
+        byte[] body;
+        try {
+            body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        } catch (IOException e) {
+            refuse(route, response, 400, "Request body could not be read");
+            return;
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            refuse(route, response, 413, "Request body too large");
+            return;
+        }
+
+        String email = readEmail(body);
+        if (email != null) {
+            retryAfter = rateLimiter.tryAcquire(route.name + ":email:" + email, route.perEmail);
+            if (retryAfter > 0) {
+                reject(route, response, retryAfter);
+                return;
+            }
+        }
+
+        route.admitted.increment();
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private void reject(Route route, HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        route.rejected.increment();
+
+        ApiResponse<Object> body = new ApiResponse<>(false, "Too many requests, please try again later", null, 429);
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private void refuse(Route route, HttpServletResponse response, int status, String message) throws IOException {
+        route.rejected.increment();
+
+        ApiResponse<Object> body = new ApiResponse<>(false, message, null, status);
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            if (email == null || !email.isTextual() || email.asText().isBlank()) {
+                return null;
+            }
+            return email.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            // Malformed body: let request validation reject it
+            return null;
+        }
+    }
+
+    /**
+     * Client address; behind the Render proxy the last X-Forwarded-For hop is the one it appended
+     */
+    private String clientIp(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            int comma = forwardedFor.lastIndexOf(',');
+            return forwardedFor.substring(comma + 1).trim();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private final class Route {
+        private final String name;
+        private final int perIp;
+        private final int perEmail;
+        private final Counter admitted;
+        private final Counter rejected;
+
+        private Route(String name, int perIp, int perEmail) {
+            this.name = name;
+            this.perIp = perIp;
+            this.perEmail = perEmail;
+            this.admitted = Counter.builder("rate.limit.requests").tag("route", name).tag("result", "admitted")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("rate.limit.requests").tag("route", name).tag("result", "rejected")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Request whose body has been read up front so it can be inspected here and read again by the controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is in memory, so it is available at once
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? java.nio.charset.Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.student.studentcoursemanagement.config;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sendgrid.Client;
+import com.sendgrid.SendGrid;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One SendGrid client for the whole application, backed by a pooled keep-alive HTTP client,
+ * so mails reuse TLS connections instead of opening a new one each.
+ */
+@Configuration
+public class SendGridConfig {
+
+    @Value("${sendgrid.api.key}")
+    private String sendGridApiKey;
+
+    // Point at a local stand-in server for load tests (with sendgrid.api.plaintext=true for http)
+    @Value("${sendgrid.api.host:api.sendgrid.com}")
+    private String host;
+
+    @Value("${sendgrid.api.plaintext:false}")
+    private boolean plaintext;
+
+    @Value("${sendgrid.http.connect.timeout.ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${sendgrid.http.read.timeout.ms:10000}")
+    private int readTimeoutMs;
+
+    @Value("${sendgrid.http.max.connections:20}")
+    private int maxConnections;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient sendGridHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                60, TimeUnit.SECONDS);
+        // All traffic goes to one host, so the per-route limit is the real limit
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity(10_000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setConnectionRequestTimeout(connectTimeoutMs)
+                .setSocketTimeout(readTimeoutMs)
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(30, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Bean
+    public SendGrid sendGrid(CloseableHttpClient sendGridHttpClient) {
+        SendGrid sendGrid = new SendGrid(sendGridApiKey, new Client(sendGridHttpClient, plaintext));
+        sendGrid.setHost(host);
+        return sendGrid;
+    }
+}
@@ -3,6 +3,7 @@ package com.student.studentcoursemanagement.controller;
 import com.student.studentcoursemanagement.dto.ApiResponse;
 import com.student.studentcoursemanagement.dto.AuthResponse;
 import com.student.studentcoursemanagement.dto.LoginRequestDTO;
+import com.student.studentcoursemanagement.dto.RefreshTokenRequest;
 import com.student.studentcoursemanagement.dto.RegisterRequestDTO;
 import com.student.studentcoursemanagement.dto.GoogleAuthRequest;
 import com.student.studentcoursemanagement.dto.ForgotPasswordRequest;
@@ -215,4 +216,27 @@ public class AuthController {
         int statusCode = response.getStatusCode() > 0 ? response.getStatusCode() : 200;
         return ResponseEntity.status(statusCode).body(response);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        ApiResponse<AuthResponse> response = authService.refreshToken(request);
+
+        if (!response.isSuccess()) {
+            logger.warn("Token refresh failed. Reason: {}", response.getMessage());
+            int statusCode = response.getStatusCode() > 0 ? response.getStatusCode() : 401;
+            return ResponseEntity.status(statusCode).body(response);
+        }
+
+        int statusCode = response.getStatusCode() > 0 ? response.getStatusCode() : 200;
+        return ResponseEntity.status(statusCode).body(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<String>> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        logger.info("Logout request received");
+
+        ApiResponse<String> response = authService.logout(request);
+        int statusCode = response.getStatusCode() > 0 ? response.getStatusCode() : 200;
+        return ResponseEntity.status(statusCode).body(response);
+    }
 }
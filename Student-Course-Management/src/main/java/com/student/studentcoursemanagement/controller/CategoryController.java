@@ -4,13 +4,17 @@ import com.student.studentcoursemanagement.dto.ApiResponse;
 import com.student.studentcoursemanagement.dto.CategoryRequestDTO;
 import com.student.studentcoursemanagement.dto.CategoryResponseDTO;
 import com.student.studentcoursemanagement.service.CategoryService;
+import com.student.studentcoursemanagement.service.ResourceVersionService;
+import com.student.studentcoursemanagement.util.SerializedResponseCache;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,14 +28,22 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    @Autowired
+    private SerializedResponseCache responseCache;
+
     /**
-     * Get all active categories (public access)
+     * Get all active categories (public access), answering a matching If-None-Match with 304
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CategoryResponseDTO>>> getAllCategories() {
-        logger.info("Request to get all active categories");
-        ApiResponse<List<CategoryResponseDTO>> response = categoryService.getAllCategories();
-        return ResponseEntity.status(response.getStatusCode()).body(response);
+    public ResponseEntity<?> getAllCategories(WebRequest webRequest) {
+        String etag = resourceVersions.etag(ResourceVersionService.CATEGORIES);
+        return responseCache.serve(webRequest, etag, CacheControl.noCache().cachePublic(), () -> {
+            logger.info("Request to get all active categories");
+            return categoryService.getAllCategories();
+        });
     }
 
     /**
@@ -3,14 +3,20 @@ package com.student.studentcoursemanagement.controller;
 import com.student.studentcoursemanagement.dto.ApiResponse;
 import com.student.studentcoursemanagement.dto.CourseRequestDTO;
 import com.student.studentcoursemanagement.dto.CourseResponseDTO;
+import com.student.studentcoursemanagement.model.CourseType;
 import com.student.studentcoursemanagement.model.DifficultyLevel;
+import com.student.studentcoursemanagement.model.Language;
 import com.student.studentcoursemanagement.service.CourseService;
+import com.student.studentcoursemanagement.service.ResourceVersionService;
+import com.student.studentcoursemanagement.util.SerializedResponseCache;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,6 +29,12 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    @Autowired
+    private SerializedResponseCache responseCache;
+
     @PostMapping
     public ResponseEntity<ApiResponse<CourseResponseDTO>> createCourse(
             @Valid @RequestBody CourseRequestDTO request) {
@@ -35,19 +47,53 @@ public class CourseController {
         return ResponseEntity.status(statusCode).body(response);
     }
 
+    /**
+     * List courses. With cursor, limit, fields or facets=true the response is a CoursePageDTO page,
+     * carrying facet counts only when facets=true; without them, the full list as before. A matching If-None-Match is answered with 304
+     * straight from the catalog version, anything else from the serialized response cache.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CourseResponseDTO>>> getAllCourses(
+    public ResponseEntity<?> getAllCourses(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) DifficultyLevel difficulty,
-            @RequestParam(required = false) String search) {
-
-        logger.info("Get all courses request with filters - category: {}, difficulty: {}, search: {}",
-                category, difficulty, search);
-
-        ApiResponse<List<CourseResponseDTO>> response = courseService.getAllCourses(category, difficulty, search);
-        int statusCode = response.getStatusCode() > 0 ? response.getStatusCode() : 200;
+            @RequestParam(required = false) Language language,
+            @RequestParam(required = false) CourseType courseType,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Boolean facets,
+            WebRequest webRequest) {
+
+        String etag = resourceVersions.etag(ResourceVersionService.COURSES);
+        return responseCache.serve(webRequest, etag, CacheControl.noCache().cachePublic(), () -> {
+            logger.info("Get all courses request with filters - category: {}, difficulty: {}, language: {}, courseType: {}, search: {}",
+                    category, difficulty, language, courseType, search);
+
+            boolean withFacets = Boolean.TRUE.equals(facets);
+            if (cursor != null || limit != null || fields != null || withFacets) {
+                return courseService.getCoursePage(category, difficulty, language, courseType, search, cursor,
+                        limit, fields, withFacets);
+            }
+            return courseService.getAllCourses(category, difficulty, language, courseType, search);
+        });
+    }
 
-        return ResponseEntity.status(statusCode).body(response);
+    /**
+     * Course counts per filter value for a listing with these filters, served like the listing itself
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<?> getCourseFacets(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) DifficultyLevel difficulty,
+            @RequestParam(required = false) Language language,
+            @RequestParam(required = false) CourseType courseType,
+            @RequestParam(required = false) String search,
+            WebRequest webRequest) {
+
+        String etag = resourceVersions.etag(ResourceVersionService.COURSES);
+        return responseCache.serve(webRequest, etag, CacheControl.noCache().cachePublic(),
+                () -> courseService.getCourseFacets(category, difficulty, language, courseType, search));
     }
 
     @GetMapping("/{id}")
@@ -1,8 +1,10 @@
 package com.student.studentcoursemanagement.controller;
 
 import com.student.studentcoursemanagement.dto.ApiResponse;
+import com.student.studentcoursemanagement.dto.OtpDispatchDTO;
 import com.student.studentcoursemanagement.dto.SendOtpRequest;
 import com.student.studentcoursemanagement.dto.VerifyOtpRequest;
+import com.student.studentcoursemanagement.model.OtpDeliveryStatus;
 import com.student.studentcoursemanagement.service.OtpService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -25,21 +27,24 @@ public class OtpController {
      * POST /api/otp/send
      */
     @PostMapping("/send")
-    public ResponseEntity<ApiResponse<String>> sendOtp(@Valid @RequestBody SendOtpRequest request) {
+    public ResponseEntity<ApiResponse<OtpDispatchDTO>> sendOtp(@Valid @RequestBody SendOtpRequest request) {
         try {
             logger.info("Sending OTP to email: {}", request.getEmail());
-            otpService.generateAndSendOtp(request.getEmail());
+            OtpDispatchDTO dispatch = otpService.generateAndSendOtp(request.getEmail());
+            if (dispatch.getStatus() == OtpDeliveryStatus.FAILED) {
+                return busyResponse();
+            }
 
-            ApiResponse<String> response = new ApiResponse<>(
+            ApiResponse<OtpDispatchDTO> response = new ApiResponse<>(
                     true,
-                    "OTP sent successfully to " + request.getEmail(),
-                    null,
+                    "OTP is being sent to " + request.getEmail(),
+                    dispatch,
                     200);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error sending OTP to email: {}", request.getEmail(), e);
-            ApiResponse<String> response = new ApiResponse<>(
+            ApiResponse<OtpDispatchDTO> response = new ApiResponse<>(
                     false,
                     "Failed to send OTP: " + e.getMessage(),
                     null,
@@ -89,21 +94,24 @@ public class OtpController {
      * POST /api/otp/resend
      */
     @PostMapping("/resend")
-    public ResponseEntity<ApiResponse<String>> resendOtp(@Valid @RequestBody SendOtpRequest request) {
+    public ResponseEntity<ApiResponse<OtpDispatchDTO>> resendOtp(@Valid @RequestBody SendOtpRequest request) {
         try {
             logger.info("Resending OTP to email: {}", request.getEmail());
-            otpService.generateAndSendOtp(request.getEmail());
+            OtpDispatchDTO dispatch = otpService.generateAndSendOtp(request.getEmail());
+            if (dispatch.getStatus() == OtpDeliveryStatus.FAILED) {
+                return busyResponse();
+            }
 
-            ApiResponse<String> response = new ApiResponse<>(
+            ApiResponse<OtpDispatchDTO> response = new ApiResponse<>(
                     true,
-                    "OTP resent successfully to " + request.getEmail(),
-                    null,
+                    "OTP is being resent to " + request.getEmail(),
+                    dispatch,
                     200);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error resending OTP to email: {}", request.getEmail(), e);
-            ApiResponse<String> response = new ApiResponse<>(
+            ApiResponse<OtpDispatchDTO> response = new ApiResponse<>(
                     false,
                     "Failed to resend OTP: " + e.getMessage(),
                     null,
@@ -117,21 +125,24 @@ public class OtpController {
      * POST /api/otp/send-login
      */
     @PostMapping("/send-login")
-    public ResponseEntity<ApiResponse<String>> sendLoginOtp(@Valid @RequestBody SendOtpRequest request) {
+    public ResponseEntity<ApiResponse<OtpDispatchDTO>> sendLoginOtp(@Valid @RequestBody SendOtpRequest request) {
         try {
             logger.info("Sending login OTP to email: {}", request.getEmail());
-            otpService.generateAndSendOtp(request.getEmail());
+            OtpDispatchDTO dispatch = otpService.generateAndSendOtp(request.getEmail());
+            if (dispatch.getStatus() == OtpDeliveryStatus.FAILED) {
+                return busyResponse();
+            }
 
-            ApiResponse<String> response = new ApiResponse<>(
+            ApiResponse<OtpDispatchDTO> response = new ApiResponse<>(
                     true,
-                    "Login OTP sent successfully to " + request.getEmail(),
-                    null,
+                    "Login OTP is being sent to " + request.getEmail(),
+                    dispatch,
                     200);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error sending login OTP to email: {}", request.getEmail(), e);
-            ApiResponse<String> response = new ApiResponse<>(
+            ApiResponse<OtpDispatchDTO> response = new ApiResponse<>(
                     false,
                     "Failed to send login OTP: " + e.getMessage(),
                     null,
@@ -139,4 +150,40 @@ public class OtpController {
             return ResponseEntity.status(500).body(response);
         }
     }
+
+    /**
+     * Delivery status of the last OTP sent to an email (PENDING, SENT or FAILED).
+     * token is the statusToken returned when the OTP was requested; unknown emails and wrong
+     * tokens get the same 404, so the endpoint cannot tell which emails have an OTP outstanding.
+     * GET /api/otp/status?email=&token=
+     */
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse<String>> getDeliveryStatus(@RequestParam String email,
+            @RequestParam(required = false) String token) {
+        OtpDeliveryStatus status = otpService.getDeliveryStatus(email, token);
+        if (status == null) {
+            ApiResponse<String> response = new ApiResponse<>(
+                    false,
+                    "No pending OTP for this request",
+                    null,
+                    404);
+            return ResponseEntity.status(404).body(response);
+        }
+
+        ApiResponse<String> response = new ApiResponse<>(
+                true,
+                "OTP delivery status retrieved",
+                status.name(),
+                200);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<ApiResponse<OtpDispatchDTO>> busyResponse() {
+        ApiResponse<OtpDispatchDTO> response = new ApiResponse<>(
+                false,
+                "OTP service is busy, please try again shortly",
+                new OtpDispatchDTO(OtpDeliveryStatus.FAILED, null),
+                503);
+        return ResponseEntity.status(503).body(response);
+    }
 }
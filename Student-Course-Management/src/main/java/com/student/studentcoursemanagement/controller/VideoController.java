@@ -5,14 +5,18 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.student.studentcoursemanagement.dto.ApiResponse;
 import com.student.studentcoursemanagement.dto.VideoRequestDTO;
 import com.student.studentcoursemanagement.dto.VideoResponseDTO;
+import com.student.studentcoursemanagement.service.ResourceVersionService;
 import com.student.studentcoursemanagement.service.VideoService;
+import com.student.studentcoursemanagement.util.SerializedResponseCache;
 
 import jakarta.validation.Valid;
 
@@ -26,6 +30,12 @@ public class VideoController {
     @Autowired
     private VideoService videoService;
 
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    @Autowired
+    private SerializedResponseCache responseCache;
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<VideoResponseDTO>> createVideo(@Valid @RequestBody VideoRequestDTO request) {
@@ -78,14 +88,14 @@ public class VideoController {
 
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<VideoResponseDTO>>> getVideosByCourseId(@PathVariable String courseId) {
-
-        logger.info("Get videos by course ID request received for course: {}", courseId);
-
-        ApiResponse<List<VideoResponseDTO>> response = videoService.getVideosByCourseId(courseId);
-        int statusCode = response.getStatusCode() > 0 ? response.getStatusCode() : 200;
-
-        return ResponseEntity.status(statusCode).body(response);
+    public ResponseEntity<?> getVideosByCourseId(@PathVariable String courseId, WebRequest webRequest) {
+
+        // Playlists are only served to signed-in users, so shared caches must not keep them
+        String etag = resourceVersions.videosEtag(courseId);
+        return responseCache.serve(webRequest, etag, CacheControl.noCache().cachePrivate(), () -> {
+            logger.info("Get videos by course ID request received for course: {}", courseId);
+            return videoService.getVideosByCourseId(courseId);
+        });
     }
 
     @DeleteMapping("/{id}")
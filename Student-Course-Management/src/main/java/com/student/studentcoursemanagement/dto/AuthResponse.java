@@ -9,6 +9,7 @@ import lombok.Data;
 public class AuthResponse {
 
     private String token;
+    private String refreshToken;
     private UserResponse user;
 
     public AuthResponse() {}
@@ -17,4 +18,10 @@ public class AuthResponse {
         this.token = token;
         this.user = user;
     }
+
+    public AuthResponse(String token, String refreshToken, UserResponse user) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.user = user;
+    }
 }
@@ -18,6 +18,7 @@ public class CategoryResponseDTO {
     private String description;
     private String iconUrl;
     private boolean active;
+    private int courseCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,27 @@
+package com.student.studentcoursemanagement.dto;
+
+import com.student.studentcoursemanagement.model.CourseType;
+import com.student.studentcoursemanagement.model.DifficultyLevel;
+import com.student.studentcoursemanagement.model.Language;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Course counts per filter value. Each dimension is counted with every other active filter (and the
+ * search term) applied but not its own, so the counts show what picking another value would return.
+ * Values with no courses are left out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseFacetsDTO {
+    private Map<String, Integer> categories;
+    private Map<DifficultyLevel, Integer> difficulties;
+    private Map<Language, Integer> languages;
+    private Map<CourseType, Integer> courseTypes;
+}
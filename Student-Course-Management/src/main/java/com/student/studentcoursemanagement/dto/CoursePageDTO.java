@@ -0,0 +1,25 @@
+package com.student.studentcoursemanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the course listing. Items are full CourseResponseDTOs, or maps holding only
+ * the requested fields when ?fields= is given. Pass nextCursor back as ?cursor= for the next page.
+ * facets holds the counts per filter value for the whole listing, not just this page, and is
+ * only filled in when requested with ?facets=true.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoursePageDTO {
+    private List<Object> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private CourseFacetsDTO facets;
+}
@@ -12,7 +12,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Data
 @Builder
@@ -20,6 +24,30 @@ import java.util.List;
 @AllArgsConstructor
 public class CourseResponseDTO {
 
+    // Fields selectable with ?fields= on the course listing
+    private static final Map<String, Function<CourseResponseDTO, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", CourseResponseDTO::getId);
+        FIELDS.put("title", CourseResponseDTO::getTitle);
+        FIELDS.put("description", CourseResponseDTO::getDescription);
+        FIELDS.put("thumbnailUrl", CourseResponseDTO::getThumbnailUrl);
+        FIELDS.put("categoryId", CourseResponseDTO::getCategoryId);
+        FIELDS.put("difficulty", CourseResponseDTO::getDifficulty);
+        FIELDS.put("videoIds", CourseResponseDTO::getVideoIds);
+        FIELDS.put("createdAt", CourseResponseDTO::getCreatedAt);
+        FIELDS.put("updatedAt", CourseResponseDTO::getUpdatedAt);
+        FIELDS.put("trainerName", CourseResponseDTO::getTrainerName);
+        FIELDS.put("trainerBio", CourseResponseDTO::getTrainerBio);
+        FIELDS.put("experience", CourseResponseDTO::getExperience);
+        FIELDS.put("linkedinProfile", CourseResponseDTO::getLinkedinProfile);
+        FIELDS.put("fieldOfWork", CourseResponseDTO::getFieldOfWork);
+        FIELDS.put("profilePictureUrl", CourseResponseDTO::getProfilePictureUrl);
+        FIELDS.put("language", CourseResponseDTO::getLanguage);
+        FIELDS.put("courseType", CourseResponseDTO::getCourseType);
+        FIELDS.put("price", CourseResponseDTO::getPrice);
+    }
+
     private String id;
     private String title;
     private String description;
@@ -66,4 +94,20 @@ public class CourseResponseDTO {
                 .price(course.getPrice())
                 .build();
     }
+
+    public static boolean isSelectableField(String name) {
+        return FIELDS.containsKey(name);
+    }
+
+    /**
+     * Sparse view of this course with only the given fields (and always the id)
+     */
+    public Map<String, Object> selectFields(Collection<String> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        selected.put("id", id);
+        for (String field : fields) {
+            selected.put(field, FIELDS.get(field).apply(this));
+        }
+        return selected;
+    }
 }
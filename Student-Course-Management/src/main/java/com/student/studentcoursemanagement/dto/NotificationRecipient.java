@@ -0,0 +1,17 @@
+package com.student.studentcoursemanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projection of a user read for email fan-out: only the fields an email needs
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationRecipient {
+    private String id;
+    private String email;
+    private String username;
+}
@@ -0,0 +1,18 @@
+package com.student.studentcoursemanagement.dto;
+
+import com.student.studentcoursemanagement.model.OtpDeliveryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of queueing an OTP email. statusToken must be passed to GET /api/otp/status
+ * to poll the delivery status of this OTP.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OtpDispatchDTO {
+    private OtpDeliveryStatus status;
+    private String statusToken;
+}
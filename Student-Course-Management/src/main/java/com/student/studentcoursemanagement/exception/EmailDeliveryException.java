@@ -0,0 +1,28 @@
+package com.student.studentcoursemanagement.exception;
+
+public class EmailDeliveryException extends RuntimeException {
+
+    // HTTP status returned by SendGrid, 0 if there was no response
+    private final int statusCode;
+
+    // False when sending the same mail again cannot succeed (e.g. rejected by SendGrid with 400)
+    private final boolean retryable;
+
+    public EmailDeliveryException(String message, boolean retryable) {
+        this(message, 0, retryable);
+    }
+
+    public EmailDeliveryException(String message, int statusCode, boolean retryable) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryable = retryable;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,8 @@
+package com.student.studentcoursemanagement.model;
+
+public enum EmailJobStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
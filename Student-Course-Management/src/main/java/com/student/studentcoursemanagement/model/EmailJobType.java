@@ -0,0 +1,11 @@
+package com.student.studentcoursemanagement.model;
+
+public enum EmailJobType {
+    OTP,
+    PAYMENT_RECEIPT,
+    COURSE_NOTIFICATION,
+    // Expands into batched COURSE_NOTIFICATION jobs
+    COURSE_ANNOUNCEMENT,
+    // One summary of a day's course changes for one learner
+    LEARNER_DIGEST
+}
@@ -33,4 +33,9 @@ public class EmailOtp {
     private boolean verified;
 
     private int attemptCount;
+
+    private OtpDeliveryStatus deliveryStatus;
+
+    // Lets only the client that requested this OTP poll its delivery status
+    private String statusToken;
 }
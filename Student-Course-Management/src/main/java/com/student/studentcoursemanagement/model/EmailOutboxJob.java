@@ -0,0 +1,61 @@
+package com.student.studentcoursemanagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "email_outbox")
+@CompoundIndex(name = "claim_idx", def = "{'status': 1, 'priority': 1, 'nextAttemptAt': 1}")
+public class EmailOutboxJob {
+
+    @Id
+    private String id;
+
+    private EmailJobType type;
+    private EmailPriority priority;
+    private EmailJobStatus status;
+
+    // Rendered mail, for every type except COURSE_ANNOUNCEMENT (removed from OTP jobs once they finish)
+    private String toEmail;
+    private String subject;
+    private String contentType;
+    private String body;
+
+    // Batched jobs: one personalization per recipient instead of toEmail (at most 1000 per SendGrid request)
+    private List<EmailRecipient> recipients;
+
+    // Batched jobs: the substitution tag in the body replaced by each recipient's name
+    private String nameTag;
+
+    // COURSE_ANNOUNCEMENT: what to announce
+    private String courseId;
+    private String action;
+
+    // Set on jobs produced by an expansion so re-running it does not enqueue a recipient twice
+    @Indexed(unique = true, sparse = true)
+    private String dedupeKey;
+
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+
+    // A worker owns a SENDING job until then; an expired lease means the worker died
+    private LocalDateTime leaseUntil;
+
+    private String lastError;
+    private LocalDateTime createdAt;
+
+    @Indexed(expireAfterSeconds = 604800) // Keep finished jobs for 7 days
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,6 @@
+package com.student.studentcoursemanagement.model;
+
+public enum EmailPriority {
+    HIGH,
+    NORMAL
+}
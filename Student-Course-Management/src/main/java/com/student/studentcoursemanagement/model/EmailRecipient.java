@@ -0,0 +1,27 @@
+package com.student.studentcoursemanagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One recipient of a batched email job (one SendGrid personalization)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailRecipient {
+
+    private String email;
+
+    // Substituted for the name tag in the job's body
+    private String name;
+
+    // PENDING until delivered (SENT) or rejected on its own by SendGrid (DEAD)
+    @Builder.Default
+    private EmailJobStatus status = EmailJobStatus.PENDING;
+
+    private String error;
+}
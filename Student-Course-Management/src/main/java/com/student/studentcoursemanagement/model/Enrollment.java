@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,7 +12,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Document(collection = "enrollments")
-@CompoundIndex(def = "{'userId': 1, 'courseId': 1}", unique = true)
+@CompoundIndexes({
+        @CompoundIndex(def = "{'userId': 1, 'courseId': 1}", unique = true),
+        // Learners of a course, in userId order (notification fan-out)
+        @CompoundIndex(name = "course_user_idx", def = "{'courseId': 1, 'userId': 1}")
+})
 @Builder
 @Data
 @NoArgsConstructor
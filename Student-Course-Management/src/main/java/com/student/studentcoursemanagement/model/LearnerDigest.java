@@ -0,0 +1,45 @@
+package com.student.studentcoursemanagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Course events of one day for one learner, sent as a single digest email the next day
+ * (merged with any other unsent days of the same learner)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "learner_digests")
+// Digest run: unsent records in _id order, which groups them by learner
+@CompoundIndex(name = "unsent_id_idx", def = "{'sent': 1, '_id': 1}")
+public class LearnerDigest {
+
+    // userId:day
+    @Id
+    private String id;
+
+    private String userId;
+    private String email;
+    private String username;
+    private LocalDate day;
+
+    // By course id
+    private Map<String, LearnerDigestCourse> courses;
+
+    private boolean sent;
+
+    @Indexed(expireAfterSeconds = 30 * 24 * 3600) // Auto-delete after 30 days
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.student.studentcoursemanagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One course in a learner's daily digest; any number of events on it collapse into one line
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearnerDigestCourse {
+
+    private String title;
+
+    private boolean created;
+
+    private boolean updated;
+}
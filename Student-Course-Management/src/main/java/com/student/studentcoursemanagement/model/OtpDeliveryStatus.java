@@ -0,0 +1,7 @@
+package com.student.studentcoursemanagement.model;
+
+public enum OtpDeliveryStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
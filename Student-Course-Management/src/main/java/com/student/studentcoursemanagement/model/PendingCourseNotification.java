@@ -0,0 +1,43 @@
+package com.student.studentcoursemanagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A course notification waiting for edits to the course to settle, one per course
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "pending_course_notifications")
+public class PendingCourseNotification {
+
+    // The course id
+    @Id
+    private String id;
+
+    private String action;
+
+    // Edits coalesced into this notification
+    private int requestCount;
+
+    private LocalDateTime firstRequestedAt;
+
+    private LocalDateTime lastRequestedAt;
+
+    // Sent once no edit arrived for the quiet window...
+    @Indexed
+    private LocalDateTime sendAfter;
+
+    // ...or at the latest by this time, however often the course keeps changing
+    @Indexed
+    private LocalDateTime deadline;
+}
@@ -0,0 +1,49 @@
+package com.student.studentcoursemanagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    private String id;
+
+    // SHA-256 of the opaque token; the token itself is never stored
+    @Indexed(unique = true)
+    private String tokenHash;
+
+    // All tokens produced by rotating one login share a family
+    @Indexed
+    private String familyId;
+
+    @Indexed
+    private String userId;
+
+    // Copied from the user at login so a refresh can mint an access token without reading the user
+    private String email;
+    @Builder.Default
+    private Set<UserRole> roles = new HashSet<>();
+    private long tokenVersion;
+
+    private LocalDateTime createdAt;
+
+    // Set when the token is rotated; presenting it again means it was stolen
+    private LocalDateTime usedAt;
+
+    @Indexed(expireAfterSeconds = 0) // Auto-delete once expired
+    private LocalDateTime expiresAt;
+}
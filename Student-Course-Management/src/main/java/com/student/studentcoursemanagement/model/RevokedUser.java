@@ -0,0 +1,34 @@
+package com.student.studentcoursemanagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a deleted account, so every instance (and a restarted one) keeps rejecting its
+ * access tokens until the last of them has expired
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_users")
+public class RevokedUser {
+
+    // The deleted user's id
+    @Id
+    private String id;
+
+    @Indexed
+    private LocalDateTime revokedAt;
+
+    // revokedAt + jwt.expiration: no token issued before the deletion is valid after this
+    @Indexed(expireAfterSeconds = 0) // Auto-delete once expired
+    private LocalDateTime expiresAt;
+}
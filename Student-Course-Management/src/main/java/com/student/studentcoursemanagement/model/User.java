@@ -35,6 +35,8 @@ public class User {
     private AuthProvider authProvider = AuthProvider.LOCAL;
     @Builder.Default
     private Set<UserRole> roles = new HashSet<>();
+    // Embedded in issued JWTs; bumping it revokes every token issued before
+    private long tokenVersion;
 
     public User(String email, String username, String password) {
         this();
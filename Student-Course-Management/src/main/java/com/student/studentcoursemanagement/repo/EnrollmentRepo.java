@@ -3,8 +3,11 @@ package com.student.studentcoursemanagement.repo;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.student.studentcoursemanagement.model.Enrollment;
@@ -32,6 +35,14 @@ public interface EnrollmentRepo extends MongoRepository<Enrollment, String> {
      */
     List<Enrollment> findByCourseId(String courseId);
 
+    /**
+     * Stream the user IDs enrolled in a course through a cursor, ordered by user ID (userId only).
+     * Covered by the courseId/userId index; the stream must be closed.
+     */
+    @Meta(cursorBatchSize = 500)
+    @Query(value = "{'courseId': ?0}", fields = "{'_id': 0, 'userId': 1}", sort = "{'userId': 1}")
+    Stream<Enrollment> streamUserIdsByCourseId(String courseId);
+
     /**
      * Count total enrollments for a course
      */
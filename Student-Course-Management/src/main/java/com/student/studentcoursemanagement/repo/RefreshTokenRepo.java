@@ -0,0 +1,25 @@
+package com.student.studentcoursemanagement.repo;
+
+import com.student.studentcoursemanagement.model.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepo extends MongoRepository<RefreshToken, String> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Atomically mark an unused token as used; returns 0 if it was already used
+    @Query("{'tokenHash': ?0, 'usedAt': null}")
+    @Update("{'$set': {'usedAt': ?1}}")
+    long markUsed(String tokenHash, LocalDateTime usedAt);
+
+    void deleteByFamilyId(String familyId);
+
+    void deleteByUserId(String userId);
+}
@@ -0,0 +1,14 @@
+package com.student.studentcoursemanagement.repo;
+
+import com.student.studentcoursemanagement.model.RevokedUser;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedUserRepo extends MongoRepository<RevokedUser, String> {
+
+    List<RevokedUser> findByRevokedAtAfter(LocalDateTime since);
+}
@@ -2,8 +2,11 @@ package com.student.studentcoursemanagement.repo;
 
 import com.student.studentcoursemanagement.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface UserRepo extends MongoRepository<User, String> {
@@ -13,4 +16,13 @@ public interface UserRepo extends MongoRepository<User, String> {
     User findByEmail(String email);
 
     int countByCreatedAtAfter(LocalDateTime date);
+
+    // Users whose token version was bumped and who changed since the given time (id and tokenVersion only)
+    @Query(value = "{'tokenVersion': {$gt: 0}, 'updatedAt': {$gt: ?0}}", fields = "{'_id': 1, 'tokenVersion': 1}")
+    List<User> findTokenVersionsUpdatedAfter(LocalDateTime since);
+
+    // Replace a password hash only if it is still the one that was verified (rehash on login)
+    @Query("{'_id': ?0, 'password': ?1}")
+    @Update("{'$set': {'password': ?2}}")
+    long replacePasswordHash(String id, String expectedHash, String newHash);
 }
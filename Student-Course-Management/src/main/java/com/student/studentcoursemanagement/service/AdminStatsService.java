@@ -34,6 +34,9 @@ public class AdminStatsService {
     @Autowired
     private CourseRepo courseRepository;
 
+    @Autowired
+    private CourseCatalog courseCatalog;
+
     @Autowired
     private EnrollmentRepo enrollmentRepository;
 
@@ -95,7 +98,7 @@ public class AdminStatsService {
                 
                 if (!videoIds.isEmpty()) {
                     course.setVideoIds(videoIds);
-                    courseRepository.save(course);
+                    courseCatalog.put(courseRepository.save(course));
                     logger.info("Synced {} videos to course '{}'", videoIds.size(), course.getTitle());
                 }
             }
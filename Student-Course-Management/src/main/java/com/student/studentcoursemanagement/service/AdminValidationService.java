@@ -1,13 +1,15 @@
 package com.student.studentcoursemanagement.service;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.student.studentcoursemanagement.model.User;
 import com.student.studentcoursemanagement.model.UserRole;
-import com.student.studentcoursemanagement.repo.UserRepo;
+import com.student.studentcoursemanagement.service.PrincipalCacheService.CachedPrincipal;
 import com.student.studentcoursemanagement.util.JwtUtil;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 
 @Service
@@ -17,7 +19,10 @@ public class AdminValidationService {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserRepo userRepo;
+    private PrincipalCacheService principalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
 
     public boolean isAdminFromHeader(HttpServletRequest request) {
@@ -29,17 +34,26 @@ public class AdminValidationService {
         
         try {
             String token = authHeader.substring(7);
-            String email = jwtUtil.extractEmail(token);
+            Claims claims = jwtUtil.parseVerifiedClaims(token);
+            String email = claims != null ? claims.getSubject() : null;
+            String userId = claims != null ? claims.get(JwtUtil.CLAIM_USER_ID, String.class) : null;
             
-            if (email == null || !jwtUtil.validateToken(token, email)) {
+            if (email == null || userId == null) {
                 return false;
             }
             
-            User user = userRepo.findByEmail(email);
-            return user != null && user.getRoles() != null && user.getRoles().contains(UserRole.ADMIN);
+            List<UserRole> roles = jwtUtil.getRoles(claims);
+            Long tokenVersion = jwtUtil.getTokenVersion(claims);
+            if (roles != null && tokenVersion != null) {
+                return roles.contains(UserRole.ADMIN) && !tokenRevocationService.isRevoked(userId, tokenVersion);
+            }
+            
+            CachedPrincipal principal = principalCache.getPrincipal(userId);
+            return principal.isExists() && email.equals(principal.getEmail())
+                    && principal.getRoles().contains(UserRole.ADMIN);
             
         } catch (Exception e) {
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -4,12 +4,14 @@ import com.student.studentcoursemanagement.dto.ApiResponse;
 import com.student.studentcoursemanagement.dto.AuthResponse;
 import com.student.studentcoursemanagement.dto.GoogleAuthRequest;
 import com.student.studentcoursemanagement.dto.LoginRequestDTO;
+import com.student.studentcoursemanagement.dto.RefreshTokenRequest;
 import com.student.studentcoursemanagement.dto.RegisterRequestDTO;
 import com.student.studentcoursemanagement.dto.UserResponse;
 import com.student.studentcoursemanagement.dto.ForgotPasswordRequest;
 import com.student.studentcoursemanagement.dto.VerifyOtpRequest;
 import com.student.studentcoursemanagement.dto.ResetPasswordRequest;
 import com.student.studentcoursemanagement.model.AuthProvider;
+import com.student.studentcoursemanagement.model.OtpDeliveryStatus;
 import com.student.studentcoursemanagement.model.User;
 import com.student.studentcoursemanagement.model.UserRole;
 import com.student.studentcoursemanagement.repo.UserRepo;
@@ -17,15 +19,9 @@ import com.student.studentcoursemanagement.util.JwtUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
-import java.util.Collections;
 import java.util.Optional;
 
 @Service
@@ -35,7 +31,7 @@ public class AuthService {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private UserRepo userRepository;
@@ -43,8 +39,17 @@ public class AuthService {
     @Autowired
     private OtpService otpService;
 
-    @Value("${google.clientId:}")
-    private String googleClientId;
+    @Autowired
+    private PrincipalCacheService principalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private GoogleTokenVerifierService googleTokenVerifierService;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
@@ -84,7 +89,7 @@ public class AuthService {
         User user = new User();
         user.setEmail(request.getEmail());
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setMobileNumber(request.getMobileNumber());
         user.setVerified(true);
         user.setCreatedAt(java.time.LocalDateTime.now());
@@ -98,7 +103,8 @@ public class AuthService {
         otpService.deleteOtp(request.getEmail());
 
         AuthResponse authResponse = AuthResponse.builder()
-                .token(jwtUtil.generateToken(user.getId(), user.getEmail()))
+                .token(jwtUtil.generateToken(user))
+                .refreshToken(refreshTokenService.issue(user))
                 .user(new UserResponse(user))
                 .build();
         if (authResponse.getToken() == null) {
@@ -131,15 +137,18 @@ public class AuthService {
             return response;
         }
 
-        if (user.getPassword() == null || !passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             ApiResponse<AuthResponse> response = new ApiResponse<>(false, "Invalid credentials", null);
             response.setStatusCode(401);
             return response;
         }
 
+        passwordHashingService.upgradeIfNeeded(user, request.getPassword());
+
         // Generate token
         AuthResponse authResponse = AuthResponse.builder()
-                .token(jwtUtil.generateToken(user.getId(), user.getEmail()))
+                .token(jwtUtil.generateToken(user))
+                .refreshToken(refreshTokenService.issue(user))
                 .user(new UserResponse(user))
                 .build();
 
@@ -173,12 +182,14 @@ public class AuthService {
             return response;
         }
 
-        if (user.getPassword() == null || !passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             ApiResponse<String> response = new ApiResponse<>(false, "Invalid credentials", null);
             response.setStatusCode(401);
             return response;
         }
 
+        passwordHashingService.upgradeIfNeeded(user, request.getPassword());
+
         ApiResponse<String> response = new ApiResponse<>(true, "Password verified successfully", null);
         response.setStatusCode(200);
         return response;
@@ -209,7 +220,8 @@ public class AuthService {
 
         // Generate token
         AuthResponse authResponse = AuthResponse.builder()
-                .token(jwtUtil.generateToken(user.getId(), user.getEmail()))
+                .token(jwtUtil.generateToken(user))
+                .refreshToken(refreshTokenService.issue(user))
                 .user(new UserResponse(user))
                 .build();
 
@@ -245,7 +257,8 @@ public class AuthService {
 
         // Generate token
         AuthResponse authResponse = AuthResponse.builder()
-                .token(jwtUtil.generateToken(user.getId(), user.getEmail()))
+                .token(jwtUtil.generateToken(user))
+                .refreshToken(refreshTokenService.issue(user))
                 .user(new UserResponse(user))
                 .build();
 
@@ -274,7 +287,12 @@ public class AuthService {
         }
 
         try {
+            // Tombstone first: if it cannot be written, the account is left in place rather than
+            // deleted with its access tokens still valid elsewhere
+            tokenRevocationService.revokeAll(userId);
             userRepository.delete(user);
+            principalCache.invalidate(userId);
+            refreshTokenService.revokeAllForUser(userId);
             ApiResponse<String> response = new ApiResponse<>(true, "Account deleted successfully", null);
             response.setStatusCode(200);
             return response;
@@ -301,8 +319,12 @@ public class AuthService {
         }
 
         user.getRoles().add(UserRole.ADMIN);
+        // Tokens issued before the role change carry the old roles
+        user.setTokenVersion(user.getTokenVersion() + 1);
         user.setUpdatedAt(java.time.LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(userId);
+        tokenRevocationService.revokeBefore(userId, user.getTokenVersion());
 
         ApiResponse<String> response = new ApiResponse<>(true, "Admin role added successfully", null);
         response.setStatusCode(200);
@@ -313,19 +335,14 @@ public class AuthService {
         // Verify the ID token with Google
         try {
             String expectedClientId = Optional.ofNullable(request.getClientId()).filter(s -> !s.isBlank())
-                    .orElse(googleClientId);
+                    .orElse(googleTokenVerifierService.getDefaultClientId());
             if (expectedClientId == null || expectedClientId.isBlank()) {
                 ApiResponse<AuthResponse> response = new ApiResponse<>(false, "Google clientId not configured", null);
                 response.setStatusCode(500);
                 return response;
             }
 
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(new NetHttpTransport(),
-                    GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(expectedClientId))
-                    .build();
-
-            GoogleIdToken idToken = verifier.verify(request.getIdToken());
+            GoogleIdToken idToken = googleTokenVerifierService.verify(request.getIdToken(), expectedClientId);
             if (idToken == null) {
                 ApiResponse<AuthResponse> response = new ApiResponse<>(false, "Invalid Google ID token", null);
                 response.setStatusCode(401);
@@ -369,9 +386,11 @@ public class AuthService {
             }
 
             userRepository.save(user);
+            principalCache.invalidate(user.getId());
 
             AuthResponse authResponse = AuthResponse.builder()
-                    .token(jwtUtil.generateToken(user.getId(), user.getEmail()))
+                    .token(jwtUtil.generateToken(user))
+                    .refreshToken(refreshTokenService.issue(user))
                     .user(new UserResponse(user))
                     .build();
 
@@ -404,10 +423,16 @@ public class AuthService {
         }
 
         // Generate and send OTP
-        otpService.generateAndSendOtp(request.getEmail());
+        OtpDeliveryStatus status = otpService.generateAndSendOtp(request.getEmail()).getStatus();
+        if (status == OtpDeliveryStatus.FAILED) {
+            ApiResponse<String> response = new ApiResponse<>(false,
+                "OTP service is busy, please try again shortly", status.name());
+            response.setStatusCode(503);
+            return response;
+        }
 
         ApiResponse<String> response = new ApiResponse<>(true, 
-            "OTP sent successfully to your email for password reset", null);
+            "OTP is being sent to your email for password reset", status.name());
         response.setStatusCode(200);
         return response;
     }
@@ -441,10 +466,14 @@ public class AuthService {
             return response;
         }
 
-        // Update password
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        // Update password; sessions opened with the old one (possibly stolen) end here
+        user.setPassword(passwordHashingService.encode(request.getNewPassword()));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         user.setUpdatedAt(java.time.LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
+        tokenRevocationService.revokeBefore(user.getId(), user.getTokenVersion());
+        refreshTokenService.revokeAllForUser(user.getId());
 
         // Delete OTP after successful password reset
         otpService.deleteOtp(request.getEmail());
@@ -453,4 +482,15 @@ public class AuthService {
         response.setStatusCode(200);
         return response;
     }
+
+    public ApiResponse<AuthResponse> refreshToken(RefreshTokenRequest request) {
+        return refreshTokenService.rotate(request.getRefreshToken());
+    }
+
+    public ApiResponse<String> logout(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        ApiResponse<String> response = new ApiResponse<>(true, "Logged out successfully", null);
+        response.setStatusCode(200);
+        return response;
+    }
 }
@@ -0,0 +1,122 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.model.Category;
+import com.student.studentcoursemanagement.repo.CategoryRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of the categories collection, so category reads never touch MongoDB.
+ * Same scheme as CourseCatalog: an immutable map swapped on every write, loaded lazily
+ * and reloaded periodically to pick up changes made by other instances; a reload that finds
+ * nothing new keeps the current map and the categories version.
+ * The Category objects are shared by every reader and must not be modified; writers load
+ * the document from MongoDB, save it and put the saved copy here.
+ */
+@Component
+public class CategoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryCache.class);
+
+    @Autowired
+    private CategoryRepo categoryRepo;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    private volatile Map<String, Category> categories;
+
+    public List<Category> findAll() {
+        return new ArrayList<>(categories().values());
+    }
+
+    public List<Category> findActive() {
+        List<Category> active = new ArrayList<>();
+        for (Category category : categories().values()) {
+            if (category.isActive()) {
+                active.add(category);
+            }
+        }
+        return active;
+    }
+
+    public Category get(String id) {
+        return categories().get(id);
+    }
+
+    /**
+     * Add or replace a category after it was saved
+     */
+    public synchronized void put(Category category) {
+        Map<String, Category> current = categories;
+        if (current == null) {
+            return;
+        }
+        Map<String, Category> next = new LinkedHashMap<>(current);
+        next.put(category.getId(), category);
+        categories = Collections.unmodifiableMap(next);
+    }
+
+    /**
+     * Drop a category after it was deleted
+     */
+    public synchronized void remove(String id) {
+        Map<String, Category> current = categories;
+        if (current == null || !current.containsKey(id)) {
+            return;
+        }
+        Map<String, Category> next = new LinkedHashMap<>(current);
+        next.remove(id);
+        categories = Collections.unmodifiableMap(next);
+    }
+
+    /**
+     * Re-read every category from MongoDB
+     */
+    @Scheduled(fixedDelayString = "${category.cache.reload.interval.ms:300000}",
+            initialDelayString = "${category.cache.reload.interval.ms:300000}")
+    public synchronized void reload() {
+        try {
+            Map<String, Category> loaded = new LinkedHashMap<>();
+            for (Category category : categoryRepo.findAll()) {
+                loaded.put(category.getId(), category);
+            }
+            if (loaded.equals(categories)) {
+                logger.debug("Category cache unchanged with {} categories", loaded.size());
+                return;
+            }
+            categories = Collections.unmodifiableMap(loaded);
+            // Changes made by other instances
+            resourceVersions.bump(ResourceVersionService.CATEGORIES);
+            logger.debug("Category cache loaded with {} categories", loaded.size());
+        } catch (Exception e) {
+            // Keep serving the previous copy
+            logger.error("Failed to reload categories: {}", e.getMessage());
+            if (categories == null) {
+                throw e;
+            }
+        }
+    }
+
+    private Map<String, Category> categories() {
+        Map<String, Category> current = categories;
+        if (current == null) {
+            synchronized (this) {
+                if (categories == null) {
+                    reload();
+                }
+                current = categories;
+            }
+        }
+        return current;
+    }
+}
@@ -26,13 +26,22 @@ public class CategoryService {
     @Autowired
     private CourseRepo courseRepository;
 
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
     /**
      * Get all active categories
      */
     public ApiResponse<List<CategoryResponseDTO>> getAllCategories() {
         try {
             logger.info("Fetching all active categories");
-            List<Category> categories = categoryRepository.findByActiveTrue();
+            List<Category> categories = categoryCache.findActive();
             List<CategoryResponseDTO> responseDTOs = categories.stream()
                     .map(this::convertToResponseDTO)
                     .collect(Collectors.toList());
@@ -51,7 +60,7 @@ public class CategoryService {
     public ApiResponse<List<CategoryResponseDTO>> getAllCategoriesForAdmin() {
         try {
             logger.info("Fetching all categories for admin");
-            List<Category> categories = categoryRepository.findAll();
+            List<Category> categories = categoryCache.findAll();
             List<CategoryResponseDTO> responseDTOs = categories.stream()
                     .map(this::convertToResponseDTO)
                     .collect(Collectors.toList());
@@ -70,8 +79,10 @@ public class CategoryService {
     public ApiResponse<CategoryResponseDTO> getCategoryById(String id) {
         try {
             logger.info("Fetching category with ID: {}", id);
-            Category category = categoryRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Category not found with ID: " + id));
+            Category category = categoryCache.get(id);
+            if (category == null) {
+                throw new RuntimeException("Category not found with ID: " + id);
+            }
 
             return new ApiResponse<>(true, "Category retrieved successfully", convertToResponseDTO(category), 200);
         } catch (Exception e) {
@@ -103,6 +114,8 @@ public class CategoryService {
                     .build();
 
             Category savedCategory = categoryRepository.save(category);
+            categoryCache.put(savedCategory);
+            resourceVersions.bump(ResourceVersionService.CATEGORIES);
             logger.info("Category created successfully with ID: {}", savedCategory.getId());
 
             return new ApiResponse<>(true, "Category created successfully", convertToResponseDTO(savedCategory), 201);
@@ -135,6 +148,8 @@ public class CategoryService {
             category.setUpdatedAt(LocalDateTime.now());
 
             Category updatedCategory = categoryRepository.save(category);
+            categoryCache.put(updatedCategory);
+            resourceVersions.bump(ResourceVersionService.CATEGORIES);
             logger.info("Category updated successfully with ID: {}", updatedCategory.getId());
 
             return new ApiResponse<>(true, "Category updated successfully", convertToResponseDTO(updatedCategory), 200);
@@ -155,7 +170,7 @@ public class CategoryService {
                     .orElseThrow(() -> new RuntimeException("Category not found with ID: " + id));
 
             // Check if any courses are using this category
-            long courseCount = courseRepository.countByCategoryId(id);
+            long courseCount = countCourses(id);
             if (courseCount > 0) {
                 logger.error("Cannot delete category. {} courses are using this category", courseCount);
                 return new ApiResponse<>(false,
@@ -167,7 +182,8 @@ public class CategoryService {
             // Soft delete
             category.setActive(false);
             category.setUpdatedAt(LocalDateTime.now());
-            categoryRepository.save(category);
+            categoryCache.put(categoryRepository.save(category));
+            resourceVersions.bump(ResourceVersionService.CATEGORIES);
 
             logger.info("Category soft deleted successfully with ID: {}", id);
             return new ApiResponse<>(true, "Category deleted successfully", null, 200);
@@ -188,7 +204,7 @@ public class CategoryService {
                     .orElseThrow(() -> new RuntimeException("Category not found with ID: " + id));
 
             // Check if any courses are using this category
-            long courseCount = courseRepository.countByCategoryId(id);
+            long courseCount = countCourses(id);
             if (courseCount > 0) {
                 logger.error("Cannot delete category. {} courses are using this category", courseCount);
                 return new ApiResponse<>(false,
@@ -198,6 +214,8 @@ public class CategoryService {
             }
 
             categoryRepository.deleteById(id);
+            categoryCache.remove(id);
+            resourceVersions.bump(ResourceVersionService.CATEGORIES);
             logger.info("Category permanently deleted with ID: {}", id);
 
             return new ApiResponse<>(true, "Category permanently deleted successfully", null, 200);
@@ -207,6 +225,15 @@ public class CategoryService {
         }
     }
 
+    /**
+     * Courses using a category, from the catalog. Only a zero is confirmed against MongoDB, since a
+     * course created on another instance may not have reached this catalog yet.
+     */
+    private long countCourses(String categoryId) {
+        long cached = courseCatalog.countByCategory(categoryId);
+        return cached > 0 ? cached : courseRepository.countByCategoryId(categoryId);
+    }
+
     /**
      * Convert Category entity to CategoryResponseDTO
      */
@@ -217,6 +244,7 @@ public class CategoryService {
                 .description(category.getDescription())
                 .iconUrl(category.getIconUrl())
                 .active(category.isActive())
+                .courseCount(courseCatalog.countByCategory(category.getId()))
                 .createdAt(category.getCreatedAt())
                 .updatedAt(category.getUpdatedAt())
                 .build();
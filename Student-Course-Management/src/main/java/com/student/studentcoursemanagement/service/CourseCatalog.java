@@ -0,0 +1,294 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.dto.CourseFacetsDTO;
+import com.student.studentcoursemanagement.dto.CourseResponseDTO;
+import com.student.studentcoursemanagement.model.Course;
+import com.student.studentcoursemanagement.model.CourseType;
+import com.student.studentcoursemanagement.model.DifficultyLevel;
+import com.student.studentcoursemanagement.model.Language;
+import com.student.studentcoursemanagement.repo.CourseRepo;
+import com.student.studentcoursemanagement.util.CourseFacetCounts;
+import com.student.studentcoursemanagement.util.CourseSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable in-memory snapshot of the course catalog, with secondary indexes by category,
+ * difficulty, language and course type, a full-text index (CourseSearchIndex) and facet counts
+ * (CourseFacetCounts), so course listings, searches and facets never touch MongoDB.
+ * Writers build a new snapshot from the current one and swap it in (copy-on-write); readers
+ * always see a complete snapshot without locking. Loaded lazily on first use and reloaded
+ * periodically to pick up changes made by other instances. Every change bumps the courses
+ * version, which is what the listing ETag is derived from; a reload that finds nothing new
+ * keeps the current snapshot and versions.
+ * Single-course reads stay on MongoDB so a course is current right after any instance saves it.
+ * The DTOs are shared by every reader and must be treated as read-only.
+ */
+@Component
+public class CourseCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseCatalog.class);
+
+    /**
+     * Catalog order: (createdAt, id), the keyset used to page through listings
+     */
+    public static final Comparator<CourseResponseDTO> ORDER = Comparator
+            .comparing(CourseResponseDTO::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(CourseResponseDTO::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Autowired
+    private CourseRepo courseRepo;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Courses matching every non-null filter, in catalog order; with a search term,
+     * only courses matching it, best match first.
+     */
+    public List<CourseResponseDTO> find(String categoryId, DifficultyLevel difficulty, Language language,
+            CourseType courseType, String search) {
+        Snapshot current = snapshot();
+
+        // Start from the most selective index and check the remaining filters on its entries
+        List<CourseResponseDTO> candidates = current.courses;
+        if (categoryId != null) {
+            candidates = smaller(candidates, current.byCategory.getOrDefault(categoryId, List.of()));
+        }
+        if (difficulty != null) {
+            candidates = smaller(candidates, current.byDifficulty.getOrDefault(difficulty, List.of()));
+        }
+        if (language != null) {
+            candidates = smaller(candidates, current.byLanguage.getOrDefault(language, List.of()));
+        }
+        if (courseType != null) {
+            candidates = smaller(candidates, current.byCourseType.getOrDefault(courseType, List.of()));
+        }
+
+        Map<String, Float> scores = search != null && !search.isBlank() ? current.searchIndex.search(search) : null;
+        List<CourseResponseDTO> result = new ArrayList<>();
+        for (CourseResponseDTO course : candidates) {
+            if ((categoryId == null || categoryId.equals(course.getCategoryId()))
+                    && (difficulty == null || difficulty == course.getDifficulty())
+                    && (language == null || language == course.getLanguage())
+                    && (courseType == null || courseType == course.getCourseType())
+                    && (scores == null || scores.containsKey(course.getId()))) {
+                result.add(course);
+            }
+        }
+        if (scores != null) {
+            // Stable sort: equal scores keep catalog order
+            result.sort(Comparator.comparing((CourseResponseDTO course) -> scores.get(course.getId())).reversed());
+        }
+        return result;
+    }
+
+    /**
+     * Facet counts for a listing with these filters. Without a search term they come straight from
+     * the maintained counts; with one, from the courses matching it.
+     */
+    public CourseFacetsDTO facets(String categoryId, DifficultyLevel difficulty, Language language,
+            CourseType courseType, String search) {
+        CourseFacetCounts counts = search != null && !search.isBlank()
+                ? CourseFacetCounts.of(find(null, null, null, null, search))
+                : snapshot().facetCounts;
+        return counts.count(categoryId, difficulty, language, courseType);
+    }
+
+    /**
+     * Number of courses in a category, kept current by every put and remove
+     */
+    public int countByCategory(String categoryId) {
+        return snapshot().byCategory.getOrDefault(categoryId, List.of()).size();
+    }
+
+    /**
+     * Add or replace a course after it was saved
+     */
+    public synchronized void put(Course course) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Not loaded yet; the first read loads the saved state
+            return;
+        }
+        CourseResponseDTO dto = CourseResponseDTO.fromEntity(course);
+        Map<String, CourseResponseDTO> courses = new LinkedHashMap<>(current.byId);
+        CourseResponseDTO previous = courses.put(course.getId(), dto);
+        snapshot = new Snapshot(courses.values(), current.searchIndex.with(dto),
+                current.facetCounts.with(previous, dto));
+        resourceVersions.bump(ResourceVersionService.COURSES);
+        if (previous == null || !Objects.equals(previous.getCategoryId(), dto.getCategoryId())) {
+            // Category course counts changed
+            resourceVersions.bump(ResourceVersionService.CATEGORIES);
+        }
+    }
+
+    /**
+     * Drop a course after it was deleted
+     */
+    public synchronized void remove(String id) {
+        Snapshot current = snapshot;
+        if (current == null || !current.byId.containsKey(id)) {
+            return;
+        }
+        Map<String, CourseResponseDTO> courses = new LinkedHashMap<>(current.byId);
+        CourseResponseDTO removed = courses.remove(id);
+        snapshot = new Snapshot(courses.values(), current.searchIndex.without(id),
+                current.facetCounts.without(removed));
+        resourceVersions.bump(ResourceVersionService.COURSES);
+        resourceVersions.bump(ResourceVersionService.CATEGORIES);
+    }
+
+    /**
+     * Re-read one course, e.g. after its videos changed
+     */
+    public void refresh(String id) {
+        courseRepo.findById(id).ifPresentOrElse(this::put, () -> remove(id));
+    }
+
+    /**
+     * Rebuild the whole snapshot from MongoDB if anything changed
+     */
+    @Scheduled(fixedDelayString = "${course.catalog.reload.interval.ms:300000}",
+            initialDelayString = "${course.catalog.reload.interval.ms:300000}")
+    public synchronized void reload() {
+        try {
+            List<CourseResponseDTO> courses = new ArrayList<>();
+            for (Course course : courseRepo.findAll()) {
+                courses.add(CourseResponseDTO.fromEntity(course));
+            }
+            Snapshot previous = snapshot;
+            if (previous != null && sameCourses(previous.byId, courses)) {
+                logger.debug("Course catalog unchanged with {} courses", courses.size());
+                return;
+            }
+            snapshot = new Snapshot(courses, CourseSearchIndex.of(courses), CourseFacetCounts.of(courses));
+            // Changes made by other instances
+            resourceVersions.bump(ResourceVersionService.COURSES);
+            if (previous == null || !sameCategories(previous.byId, courses)) {
+                resourceVersions.bump(ResourceVersionService.CATEGORIES);
+            }
+            logger.debug("Course catalog loaded with {} courses", courses.size());
+        } catch (Exception e) {
+            // Keep serving the previous snapshot
+            logger.error("Failed to reload course catalog: {}", e.getMessage());
+            if (snapshot == null) {
+                throw e;
+            }
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static boolean sameCourses(Map<String, CourseResponseDTO> current, List<CourseResponseDTO> loaded) {
+        if (current.size() != loaded.size()) {
+            return false;
+        }
+        for (CourseResponseDTO course : loaded) {
+            // Full comparison: video changes are not reflected in updatedAt
+            if (!course.equals(current.get(course.getId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameCategories(Map<String, CourseResponseDTO> current, List<CourseResponseDTO> loaded) {
+        if (current.size() != loaded.size()) {
+            return false;
+        }
+        for (CourseResponseDTO course : loaded) {
+            CourseResponseDTO previous = current.get(course.getId());
+            if (previous == null || !Objects.equals(previous.getCategoryId(), course.getCategoryId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<CourseResponseDTO> smaller(List<CourseResponseDTO> a, List<CourseResponseDTO> b) {
+        return b.size() < a.size() ? b : a;
+    }
+
+    private static final class Snapshot {
+        private final List<CourseResponseDTO> courses;
+        private final Map<String, CourseResponseDTO> byId;
+        private final Map<String, List<CourseResponseDTO>> byCategory;
+        private final Map<DifficultyLevel, List<CourseResponseDTO>> byDifficulty;
+        private final Map<Language, List<CourseResponseDTO>> byLanguage;
+        private final Map<CourseType, List<CourseResponseDTO>> byCourseType;
+        private final CourseSearchIndex searchIndex;
+        private final CourseFacetCounts facetCounts;
+
+        private Snapshot(Iterable<CourseResponseDTO> source, CourseSearchIndex searchIndex,
+                CourseFacetCounts facetCounts) {
+            this.searchIndex = searchIndex;
+            this.facetCounts = facetCounts;
+            List<CourseResponseDTO> all = new ArrayList<>();
+            Map<String, CourseResponseDTO> ids = new LinkedHashMap<>();
+            Map<String, List<CourseResponseDTO>> categories = new HashMap<>();
+            Map<DifficultyLevel, List<CourseResponseDTO>> difficulties = new EnumMap<>(DifficultyLevel.class);
+            Map<Language, List<CourseResponseDTO>> languages = new EnumMap<>(Language.class);
+            Map<CourseType, List<CourseResponseDTO>> types = new EnumMap<>(CourseType.class);
+
+            for (CourseResponseDTO course : source) {
+                all.add(course);
+            }
+            all.sort(ORDER);
+
+            for (CourseResponseDTO course : all) {
+                ids.put(course.getId(), course);
+                if (course.getCategoryId() != null) {
+                    categories.computeIfAbsent(course.getCategoryId(), k -> new ArrayList<>()).add(course);
+                }
+                if (course.getDifficulty() != null) {
+                    difficulties.computeIfAbsent(course.getDifficulty(), k -> new ArrayList<>()).add(course);
+                }
+                if (course.getLanguage() != null) {
+                    languages.computeIfAbsent(course.getLanguage(), k -> new ArrayList<>()).add(course);
+                }
+                if (course.getCourseType() != null) {
+                    types.computeIfAbsent(course.getCourseType(), k -> new ArrayList<>()).add(course);
+                }
+            }
+
+            this.courses = Collections.unmodifiableList(all);
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byCategory = freeze(categories);
+            this.byDifficulty = freeze(difficulties);
+            this.byLanguage = freeze(languages);
+            this.byCourseType = freeze(types);
+        }
+
+        private static <K> Map<K, List<CourseResponseDTO>> freeze(Map<K, List<CourseResponseDTO>> index) {
+            index.replaceAll((key, list) -> Collections.unmodifiableList(list));
+            return Collections.unmodifiableMap(index);
+        }
+    }
+}
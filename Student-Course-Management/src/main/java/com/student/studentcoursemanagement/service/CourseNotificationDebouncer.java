@@ -0,0 +1,118 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.model.Course;
+import com.student.studentcoursemanagement.model.PendingCourseNotification;
+import com.student.studentcoursemanagement.repo.CourseRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Coalesces bursts of course edits into one notification per course. Every edit pushes the
+ * course's pending notification back by the quiet window; it is sent once the course has been
+ * left alone for that long, or when the maximum delay since the first edit is reached.
+ * Pending notifications are kept in MongoDB, so a restart does not lose them.
+ */
+@Service
+public class CourseNotificationDebouncer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseNotificationDebouncer.class);
+    private static final int MAX_PER_POLL = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CourseRepo courseRepo;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${email.notification.debounce.quiet.seconds:120}")
+    private long quietSeconds;
+
+    @Value("${email.notification.debounce.max.seconds:1800}")
+    private long maxDelaySeconds;
+
+    /**
+     * Record that a course changed; one upsert, whatever the number of edits
+     */
+    public void requestNotification(String courseId, String action) {
+        LocalDateTime now = now();
+        Update update = new Update()
+                .set("action", action)
+                .set("lastRequestedAt", now)
+                .set("sendAfter", now.plusSeconds(quietSeconds))
+                .inc("requestCount", 1)
+                .setOnInsert("firstRequestedAt", now)
+                .setOnInsert("deadline", now.plusSeconds(maxDelaySeconds));
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(courseId)), update,
+                PendingCourseNotification.class);
+    }
+
+    /**
+     * Send the notifications whose quiet window or maximum delay has passed
+     */
+    @Scheduled(fixedDelayString = "${email.notification.debounce.poll.ms:5000}")
+    public void sendDue() {
+        LocalDateTime now = now();
+        Query due = new Query(new Criteria().orOperator(
+                Criteria.where("sendAfter").lte(now),
+                Criteria.where("deadline").lte(now)))
+                .with(Sort.by("sendAfter"))
+                .limit(MAX_PER_POLL);
+
+        List<PendingCourseNotification> pending = mongoTemplate.find(due, PendingCourseNotification.class);
+        for (PendingCourseNotification notification : pending) {
+            try {
+                send(notification);
+            } catch (Exception e) {
+                // Stays pending; retried on the next poll
+                logger.error("Failed to send pending notification for course {}: {}", notification.getId(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    private void send(PendingCourseNotification notification) {
+        Course course = courseRepo.findById(notification.getId()).orElse(null);
+        if (course != null) {
+            // Keyed by the last edit, so a retry after a crash between enqueue and remove is a no-op
+            String dedupeKey = "course:" + course.getId() + ":" + notification.getAction() + ":"
+                    + notification.getLastRequestedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+            emailService.sendCourseNotificationToAllUsers(course, notification.getAction(), dedupeKey);
+            logger.info("Sent {} notification for course {} coalescing {} edits", notification.getAction(),
+                    course.getTitle(), notification.getRequestCount());
+        }
+
+        // Only remove it if no edit arrived meanwhile
+        Query unchanged = Query.query(Criteria.where("_id").is(notification.getId())
+                .and("lastRequestedAt").is(notification.getLastRequestedAt()));
+        if (mongoTemplate.remove(unchanged, PendingCourseNotification.class).getDeletedCount() == 0) {
+            // Edited while sending: start a new debounce cycle for the later edits
+            LocalDateTime now = now();
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(notification.getId())), new Update()
+                    .set("requestCount", 1)
+                    .set("firstRequestedAt", now)
+                    .set("deadline", now.plusSeconds(maxDelaySeconds)), PendingCourseNotification.class);
+        }
+    }
+
+    private LocalDateTime now() {
+        // MongoDB stores milliseconds; match what is read back so equality checks hold
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+}
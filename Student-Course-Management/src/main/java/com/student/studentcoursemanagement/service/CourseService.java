@@ -1,22 +1,31 @@
 package com.student.studentcoursemanagement.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.student.studentcoursemanagement.dto.ApiResponse;
+import com.student.studentcoursemanagement.dto.CourseFacetsDTO;
+import com.student.studentcoursemanagement.dto.CoursePageDTO;
 import com.student.studentcoursemanagement.dto.CourseRequestDTO;
 import com.student.studentcoursemanagement.dto.CourseResponseDTO;
 import com.student.studentcoursemanagement.exception.CourseNotFoundException;
 import com.student.studentcoursemanagement.exception.InvalidCourseDataException;
 import com.student.studentcoursemanagement.model.Course;
+import com.student.studentcoursemanagement.model.CourseType;
 import com.student.studentcoursemanagement.model.DifficultyLevel;
+import com.student.studentcoursemanagement.model.Language;
 import com.student.studentcoursemanagement.repo.CourseRepo;
 import com.student.studentcoursemanagement.repo.EnrollmentRepo;
 import com.student.studentcoursemanagement.repo.UserVideoCompletionRepo;
@@ -42,6 +51,21 @@ public class CourseService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private CourseNotificationDebouncer notificationDebouncer;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    @Value("${course.page.default.size:20}")
+    private int defaultPageSize;
+
+    @Value("${course.page.max.size:100}")
+    private int maxPageSize;
+
     // @Autowired
     // private FileUploadService fileUploadService;
 
@@ -69,6 +93,7 @@ public class CourseService {
                     .build();
 
             Course savedCourse = courseRepository.save(course);
+            courseCatalog.put(savedCourse);
 
             // Send email notifications to all users asynchronously
             logger.info("Triggering email notifications for new course: {}", savedCourse.getTitle());
@@ -93,40 +118,25 @@ public class CourseService {
             String categoryId,
             DifficultyLevel difficulty,
             String search) {
+        return getAllCourses(categoryId, difficulty, null, null, search);
+    }
+
+    /**
+     * List courses matching every given filter, served from the in-memory catalog
+     */
+    public ApiResponse<List<CourseResponseDTO>> getAllCourses(
+            String categoryId,
+            DifficultyLevel difficulty,
+            Language language,
+            CourseType courseType,
+            String search) {
 
         try {
-            logger.info("Fetching courses with filters - categoryId: {}, difficulty: {}, search: {}",
-                    categoryId, difficulty, search);
-
-            List<Course> courses;
-
-            // Apply filters based on provided parameters
-            if (search != null && !search.trim().isEmpty()) {
-                if (categoryId != null && difficulty != null) {
-                    courses = courseRepository.findByTitleContainingIgnoreCaseAndCategoryIdAndDifficulty(
-                            search.trim(), categoryId, difficulty);
-                } else if (categoryId != null) {
-                    courses = courseRepository.findByTitleContainingIgnoreCaseAndCategoryId(
-                            search.trim(), categoryId);
-                } else if (difficulty != null) {
-                    courses = courseRepository.findByTitleContainingIgnoreCaseAndDifficulty(
-                            search.trim(), difficulty);
-                } else {
-                    courses = courseRepository.findByTitleContainingIgnoreCase(search.trim());
-                }
-            } else if (categoryId != null && difficulty != null) {
-                courses = courseRepository.findByCategoryIdAndDifficulty(categoryId, difficulty);
-            } else if (categoryId != null) {
-                courses = courseRepository.findByCategoryId(categoryId);
-            } else if (difficulty != null) {
-                courses = courseRepository.findByDifficulty(difficulty);
-            } else {
-                courses = courseRepository.findAll();
-            }
+            logger.info("Fetching courses with filters - categoryId: {}, difficulty: {}, language: {}, courseType: {}, search: {}",
+                    categoryId, difficulty, language, courseType, search);
 
-            List<CourseResponseDTO> courseResponses = courses.stream()
-                    .map(CourseResponseDTO::fromEntity)
-                    .collect(Collectors.toList());
+            List<CourseResponseDTO> courseResponses = courseCatalog.find(categoryId, difficulty, language,
+                    courseType, search);
 
             ApiResponse<List<CourseResponseDTO>> response = new ApiResponse<>(
                     true,
@@ -143,6 +153,114 @@ public class CourseService {
         }
     }
 
+    /**
+     * Course counts per category, difficulty, language and course type for a listing with these filters
+     */
+    public ApiResponse<CourseFacetsDTO> getCourseFacets(
+            String categoryId,
+            DifficultyLevel difficulty,
+            Language language,
+            CourseType courseType,
+            String search) {
+        CourseFacetsDTO facets = courseCatalog.facets(categoryId, difficulty, language, courseType, search);
+        return new ApiResponse<>(true, "Course facets retrieved successfully", facets, 200);
+    }
+
+    /**
+     * One page of the course listing, ordered by (createdAt, id), or by relevance when searching.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param fields comma-separated fields to return per course, or null for full courses
+     * @param withFacets whether to add facet counts; clients usually want them with the first page only
+     * @throws InvalidCourseDataException on a malformed cursor or an unknown field
+     */
+    public ApiResponse<CoursePageDTO> getCoursePage(
+            String categoryId,
+            DifficultyLevel difficulty,
+            Language language,
+            CourseType courseType,
+            String search,
+            String cursor,
+            Integer limit,
+            String fields,
+            boolean withFacets) {
+
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+        List<String> selectedFields = parseFields(fields);
+        boolean ranked = search != null && !search.isBlank();
+
+        List<CourseResponseDTO> courses = courseCatalog.find(categoryId, difficulty, language, courseType, search);
+        int start = cursor == null || cursor.isBlank() ? 0 : seek(courses, cursor, ranked);
+        int end = Math.min(start + pageSize, courses.size());
+
+        List<Object> items = new ArrayList<>(end - start);
+        for (CourseResponseDTO course : courses.subList(start, end)) {
+            items.add(selectedFields != null ? course.selectFields(selectedFields) : course);
+        }
+        boolean hasMore = end < courses.size();
+
+        CoursePageDTO page = CoursePageDTO.builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encodeCursor(courses.get(end - 1), end, ranked) : null)
+                .facets(withFacets ? courseCatalog.facets(categoryId, difficulty, language, courseType, search) : null)
+                .build();
+        return new ApiResponse<>(true, "Courses retrieved successfully", page, 200);
+    }
+
+    private List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        List<String> selected = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty() || name.equals("id")) {
+                continue;
+            }
+            if (!CourseResponseDTO.isSelectableField(name)) {
+                throw new InvalidCourseDataException("Unknown course field: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    /**
+     * Keyset cursors hold the (createdAt, id) of the last course returned, so pages stay stable while
+     * courses are added or removed. Search results are ranked rather than keyset-ordered, so their
+     * cursor is the offset into the ranking.
+     */
+    private String encodeCursor(CourseResponseDTO last, int offset, boolean ranked) {
+        String raw = ranked
+                ? "r:" + offset
+                : "k:" + (last.getCreatedAt() != null ? last.getCreatedAt() : "") + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int seek(List<CourseResponseDTO> courses, String cursor, boolean ranked) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (ranked && raw.startsWith("r:")) {
+                return Math.min(Math.max(0, Integer.parseInt(raw.substring(2))), courses.size());
+            }
+            if (!ranked && raw.startsWith("k:")) {
+                int separator = raw.indexOf('|');
+                String createdAt = raw.substring(2, separator);
+                CourseResponseDTO probe = CourseResponseDTO.builder()
+                        .createdAt(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt))
+                        .id(raw.substring(separator + 1))
+                        .build();
+                // Listings are sorted in catalog order; start right after the last course returned
+                int index = Collections.binarySearch(courses, probe, CourseCatalog.ORDER);
+                return index >= 0 ? index + 1 : -index - 1;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            // Fall through to the error below
+        }
+        throw new InvalidCourseDataException("Invalid cursor");
+    }
+
     public ApiResponse<CourseResponseDTO> getCourseById(String id) {
         try {
             logger.info("Fetching course with ID: {}", id);
@@ -207,10 +325,10 @@ public class CourseService {
             existingCourse.setUpdatedAt(LocalDateTime.now());
 
             Course updatedCourse = courseRepository.save(existingCourse);
+            courseCatalog.put(updatedCourse);
 
-            // Send email notifications to all users asynchronously
-            logger.info("Triggering email notifications for updated course: {}", updatedCourse.getTitle());
-            emailService.sendCourseNotificationToAllUsers(updatedCourse, "UPDATED");
+            // Notify users once edits to the course have settled
+            notificationDebouncer.requestNotification(updatedCourse.getId(), "UPDATED");
 
             ApiResponse<CourseResponseDTO> response = new ApiResponse<>(
                     true,
@@ -278,6 +396,8 @@ public class CourseService {
             // }
 
             courseRepository.deleteById(id);
+            courseCatalog.remove(id);
+            resourceVersions.bumpVideos(id);
 
             ApiResponse<String> response = new ApiResponse<>(
                     true,
@@ -0,0 +1,486 @@
+package com.student.studentcoursemanagement.service;
+
+import com.sendgrid.Response;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import com.student.studentcoursemanagement.exception.EmailDeliveryException;
+import com.student.studentcoursemanagement.model.EmailJobStatus;
+import com.student.studentcoursemanagement.model.EmailJobType;
+import com.student.studentcoursemanagement.model.EmailOutboxJob;
+import com.student.studentcoursemanagement.model.EmailPriority;
+import com.student.studentcoursemanagement.model.EmailRecipient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable email outbox on the email_outbox collection.
+ * Callers only insert jobs; a scheduled poller leases due jobs (findAndModify) and runs them on the
+ * emailTaskExecutor worker pool, claiming no more than there are free workers. Failures are retried
+ * with exponential backoff and dead-lettered after email.outbox.max.attempts. A job whose worker died
+ * is picked up again once its lease expires, so a restart loses nothing.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+    private static final int DUPLICATE_KEY = 11000;
+
+    // Name tag of batched jobs queued before each job carried its own
+    private static final String LEGACY_NAME_TAG = "-name-";
+
+    // SendGrid limit per /mail/send request
+    public static final int MAX_PERSONALIZATIONS = 1000;
+
+    /**
+     * Custom processing for a job type, instead of delivering the rendered mail
+     */
+    @FunctionalInterface
+    public interface EmailJobHandler {
+        void handle(EmailOutboxJob job) throws Exception;
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SendGridMailSender sendGridMailSender;
+
+    @Autowired
+    @Qualifier("emailTaskExecutor")
+    private ThreadPoolTaskExecutor workerExecutor;
+
+    @Autowired
+    @Qualifier("otpEmailExecutor")
+    private Executor otpEmailExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sendgrid.from.email}")
+    private String fromEmail;
+
+    @Value("${sendgrid.from.name:StudieHub}")
+    private String fromName;
+
+    @Value("${email.outbox.lease.seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${email.outbox.max.attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry.base.seconds:30}")
+    private long retryBaseSeconds;
+
+    @Value("${email.outbox.retry.max.seconds:3600}")
+    private long retryMaxSeconds;
+
+    // How long a caller of enqueueAndDispatch waits before the job counts as failed for it
+    @Value("${email.outbox.waiter.timeout.seconds:600}")
+    private long waiterTimeoutSeconds;
+
+    private final Map<EmailJobType, EmailJobHandler> handlers = new ConcurrentHashMap<>();
+
+    // Callers waiting for a dispatched job to finish (OTP delivery status), by job id.
+    // An entry lives until its future completes: sent, dead-lettered or timed out (e.g. the job is
+    // being retried, or another instance claimed it)
+    private final Map<String, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+    private Semaphore workerPermits;
+    private Counter sent;
+    private Counter retried;
+    private Counter dead;
+    private Counter recipientsSent;
+    private Counter recipientsFailed;
+
+    @PostConstruct
+    public void init() {
+        int workers = workerExecutor.getMaxPoolSize();
+        workerPermits = new Semaphore(workers);
+        sent = Counter.builder("email.outbox.jobs").tag("result", "sent").register(meterRegistry);
+        retried = Counter.builder("email.outbox.jobs").tag("result", "retried").register(meterRegistry);
+        dead = Counter.builder("email.outbox.jobs").tag("result", "dead").register(meterRegistry);
+        recipientsSent = Counter.builder("email.outbox.recipients").tag("result", "sent").register(meterRegistry);
+        recipientsFailed = Counter.builder("email.outbox.recipients").tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.workers.busy", workerPermits, p -> workers - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    public void registerHandler(EmailJobType type, EmailJobHandler handler) {
+        handlers.put(type, handler);
+    }
+
+    /**
+     * A fresh name tag for the body of batched jobs. It is random so that no course title or
+     * description can contain it and have SendGrid substitute a recipient's name there.
+     */
+    public static String newNameTag() {
+        return "-name-" + UUID.randomUUID().toString().replace("-", "") + "-";
+    }
+
+    /**
+     * Insert a job for the workers to pick up
+     */
+    public EmailOutboxJob enqueue(EmailOutboxJob job) {
+        LocalDateTime now = now();
+        job.setStatus(EmailJobStatus.PENDING);
+        if (job.getPriority() == null) {
+            job.setPriority(EmailPriority.NORMAL);
+        }
+        job.setCreatedAt(now);
+        job.setNextAttemptAt(now);
+        return mongoTemplate.insert(job);
+    }
+
+    /**
+     * Insert jobs in bulk; jobs whose dedupeKey is already present are skipped
+     */
+    public void enqueueAll(List<EmailOutboxJob> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = now();
+        for (EmailOutboxJob job : jobs) {
+            job.setStatus(EmailJobStatus.PENDING);
+            if (job.getPriority() == null) {
+                job.setPriority(EmailPriority.NORMAL);
+            }
+            job.setCreatedAt(now);
+            job.setNextAttemptAt(now);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EmailOutboxJob.class);
+        bulk.insert(jobs);
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+            logger.debug("Skipped {} already enqueued jobs", e.getErrors().size());
+        }
+    }
+
+    /**
+     * Insert a job and start delivering it right away on the OTP lane rather than waiting for the poller.
+     * If that lane is full the job simply waits for the next poll.
+     * @return completes when the job is sent, or exceptionally once it is dead-lettered or after
+     *         email.outbox.waiter.timeout.seconds
+     */
+    public CompletableFuture<Void> enqueueAndDispatch(EmailOutboxJob job) {
+        job.setPriority(EmailPriority.HIGH);
+        // Register the waiter before the insert, the poller may finish the job before we dispatch it
+        job.setId(new ObjectId().toHexString());
+        String id = job.getId();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        waiters.put(id, result);
+        result.orTimeout(waiterTimeoutSeconds, TimeUnit.SECONDS)
+                .whenComplete((ignored, error) -> waiters.remove(id, result));
+
+        EmailOutboxJob saved;
+        try {
+            saved = enqueue(job);
+        } catch (RuntimeException e) {
+            waiters.remove(id);
+            throw e;
+        }
+
+        try {
+            otpEmailExecutor.execute(() -> {
+                EmailOutboxJob claimed = claim(saved.getId(), EmailPriority.HIGH);
+                if (claimed != null) {
+                    process(claimed);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            logger.warn("OTP lane full, job {} left for the outbox poller", saved.getId());
+        }
+        return result;
+    }
+
+    /**
+     * Extend the lease of a long-running job (e.g. a large expansion) so it is not reclaimed
+     */
+    public void renewLease(EmailOutboxJob job) {
+        LocalDateTime newLease = now().plusSeconds(leaseSeconds);
+        mongoTemplate.updateFirst(owned(job), new Update().set("leaseUntil", newLease), EmailOutboxJob.class);
+        job.setLeaseUntil(newLease);
+    }
+
+    /**
+     * Lease as many due jobs as there are idle workers, high priority first
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll.interval.ms:1000}")
+    public void poll() {
+        while (workerPermits.tryAcquire()) {
+            EmailOutboxJob job;
+            try {
+                job = claimNext();
+            } catch (RuntimeException e) {
+                // Give the permit back, or every failed claim would retire a worker for good
+                workerPermits.release();
+                logger.error("Failed to claim email jobs: {}", e.getMessage());
+                return;
+            }
+            if (job == null) {
+                workerPermits.release();
+                return;
+            }
+            try {
+                workerExecutor.execute(() -> {
+                    try {
+                        process(job);
+                    } finally {
+                        workerPermits.release();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                workerPermits.release();
+                release(job);
+                return;
+            }
+        }
+    }
+
+    private EmailOutboxJob claimNext() {
+        EmailOutboxJob job = claim(null, EmailPriority.HIGH);
+        return job != null ? job : claim(null, EmailPriority.NORMAL);
+    }
+
+    /**
+     * Atomically lease one due job (optionally a specific one): pending and due, or leased by a worker that died
+     */
+    private EmailOutboxJob claim(String id, EmailPriority priority) {
+        LocalDateTime now = now();
+        Criteria criteria = Criteria.where("priority").is(priority);
+        if (id != null) {
+            criteria = criteria.and("_id").is(id);
+        }
+        Query query = Query.query(criteria.orOperator(
+                Criteria.where("status").is(EmailJobStatus.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(EmailJobStatus.SENDING).and("leaseUntil").lt(now)))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        Update update = new Update()
+                .set("status", EmailJobStatus.SENDING)
+                .set("leaseUntil", now.plusSeconds(leaseSeconds))
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                EmailOutboxJob.class);
+    }
+
+    private void process(EmailOutboxJob job) {
+        try {
+            EmailJobHandler handler = handlers.get(job.getType());
+            if (handler != null) {
+                handler.handle(job);
+            } else {
+                deliver(job);
+            }
+            markSent(job);
+        } catch (EmailDeliveryException e) {
+            if (e.isRetryable()) {
+                markFailed(job, e.getMessage());
+            } else {
+                markDead(job, e.getMessage());
+            }
+        } catch (Exception e) {
+            markFailed(job, e.getMessage());
+        }
+    }
+
+    private void deliver(EmailOutboxJob job) throws IOException {
+        if (job.getRecipients() != null) {
+            deliverBatch(job);
+            return;
+        }
+        Mail mail = new Mail(new Email(fromEmail, fromName), job.getSubject(), new Email(job.getToEmail()),
+                new Content(job.getContentType(), job.getBody()));
+        checkResponse(sendGridMailSender.send(mail, job.getType().name().toLowerCase(), job.getPriority()));
+    }
+
+    /**
+     * Send a batched job as personalizations, skipping recipients already handled by an earlier attempt.
+     * Per-recipient outcomes are saved on the job even when the attempt fails, so a retry resumes.
+     */
+    private void deliverBatch(EmailOutboxJob job) throws IOException {
+        List<EmailRecipient> pending = job.getRecipients().stream()
+                .filter(recipient -> recipient.getStatus() == EmailJobStatus.PENDING)
+                .toList();
+        try {
+            for (int i = 0; i < pending.size(); i += MAX_PERSONALIZATIONS) {
+                sendToRecipients(job, pending.subList(i, Math.min(i + MAX_PERSONALIZATIONS, pending.size())));
+            }
+        } finally {
+            mongoTemplate.updateFirst(owned(job), new Update().set("recipients", job.getRecipients()),
+                    EmailOutboxJob.class);
+        }
+    }
+
+    /**
+     * SendGrid accepts or rejects a request as a whole. When a request with several personalizations
+     * is rejected with 400, split it in halves until the offending recipients are isolated.
+     */
+    private void sendToRecipients(EmailOutboxJob job, List<EmailRecipient> recipients) throws IOException {
+        Mail mail = new Mail();
+        mail.setFrom(new Email(fromEmail, fromName));
+        mail.setSubject(job.getSubject());
+        mail.addContent(new Content(job.getContentType(), job.getBody()));
+        String nameTag = job.getNameTag() != null ? job.getNameTag() : LEGACY_NAME_TAG;
+        for (EmailRecipient recipient : recipients) {
+            Personalization personalization = new Personalization();
+            personalization.addTo(new Email(recipient.getEmail()));
+            personalization.addSubstitution(nameTag, recipient.getName() != null ? recipient.getName() : "");
+            mail.addPersonalization(personalization);
+        }
+
+        try {
+            checkResponse(sendGridMailSender.send(mail, job.getType().name().toLowerCase(), job.getPriority()));
+        } catch (EmailDeliveryException e) {
+            // Only a 400 can be caused by one bad recipient; anything else fails the whole job
+            if (e.isRetryable() || e.getStatusCode() != 400) {
+                throw e;
+            }
+            if (recipients.size() > 1) {
+                int half = recipients.size() / 2;
+                sendToRecipients(job, recipients.subList(0, half));
+                sendToRecipients(job, recipients.subList(half, recipients.size()));
+                return;
+            }
+            EmailRecipient recipient = recipients.get(0);
+            recipient.setStatus(EmailJobStatus.DEAD);
+            recipient.setError(e.getMessage());
+            recipientsFailed.increment();
+            logger.warn("Email job {}: recipient {} rejected: {}", job.getId(), recipient.getEmail(), e.getMessage());
+            return;
+        }
+
+        for (EmailRecipient recipient : recipients) {
+            recipient.setStatus(EmailJobStatus.SENT);
+        }
+        recipientsSent.increment(recipients.size());
+    }
+
+    private void checkResponse(Response response) {
+        int status = response.getStatusCode();
+        if (status >= 200 && status < 300) {
+            return;
+        }
+        // 429 and 5xx are transient; any other 4xx will fail the same way again
+        boolean retryable = status == 429 || status >= 500;
+        throw new EmailDeliveryException("SendGrid returned status " + status + ": " + response.getBody(), status,
+                retryable);
+    }
+
+    private void markSent(EmailOutboxJob job) {
+        mongoTemplate.updateFirst(owned(job), withoutSecrets(job, new Update()
+                .set("status", EmailJobStatus.SENT)
+                .set("completedAt", now())
+                .unset("leaseUntil")), EmailOutboxJob.class);
+        sent.increment();
+
+        CompletableFuture<Void> waiter = waiters.remove(job.getId());
+        if (waiter != null) {
+            waiter.complete(null);
+        }
+    }
+
+    private void markFailed(EmailOutboxJob job, String error) {
+        if (job.getAttempts() >= maxAttempts) {
+            markDead(job, error);
+            return;
+        }
+        long delaySeconds = Math.min(retryMaxSeconds, retryBaseSeconds << Math.min(job.getAttempts() - 1, 20));
+        // +/-20% jitter so jobs that failed together do not retry together
+        delaySeconds = Math.max(1, Math.round(delaySeconds * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+
+        mongoTemplate.updateFirst(owned(job), new Update()
+                .set("status", EmailJobStatus.PENDING)
+                .set("nextAttemptAt", now().plusSeconds(delaySeconds))
+                .set("lastError", error)
+                .unset("leaseUntil"), EmailOutboxJob.class);
+        retried.increment();
+        logger.warn("Email job {} ({}) failed on attempt {}, retrying in {}s: {}", job.getId(), job.getType(),
+                job.getAttempts(), delaySeconds, error);
+    }
+
+    private void markDead(EmailOutboxJob job, String error) {
+        mongoTemplate.updateFirst(owned(job), withoutSecrets(job, new Update()
+                .set("status", EmailJobStatus.DEAD)
+                .set("completedAt", now())
+                .set("lastError", error)
+                .unset("leaseUntil")), EmailOutboxJob.class);
+        dead.increment();
+        logger.error("Email job {} ({}) dead-lettered after {} attempts: {}", job.getId(), job.getType(),
+                job.getAttempts(), error);
+
+        CompletableFuture<Void> waiter = waiters.remove(job.getId());
+        if (waiter != null) {
+            waiter.completeExceptionally(new EmailDeliveryException(error, false));
+        }
+    }
+
+    /**
+     * OTP mail carries the code in plain text; once the job is finished it is not kept for the retention period
+     */
+    private static Update withoutSecrets(EmailOutboxJob job, Update update) {
+        return job.getType() == EmailJobType.OTP ? update.unset("body") : update;
+    }
+
+    /**
+     * Hand a claimed job back untouched (no worker could take it)
+     */
+    private void release(EmailOutboxJob job) {
+        mongoTemplate.updateFirst(owned(job), new Update()
+                .set("status", EmailJobStatus.PENDING)
+                .inc("attempts", -1)
+                .unset("leaseUntil"), EmailOutboxJob.class);
+    }
+
+    /**
+     * Matches the job only while this worker still holds its lease
+     */
+    private Query owned(EmailOutboxJob job) {
+        return Query.query(Criteria.where("_id").is(job.getId()).and("leaseUntil").is(job.getLeaseUntil()));
+    }
+
+    // MongoDB stores milliseconds; truncating keeps lease values comparable after a round trip
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+}
@@ -1,368 +1,261 @@
 package com.student.studentcoursemanagement.service;
 
-import com.sendgrid.*;
-import com.sendgrid.helpers.mail.Mail;
-import com.sendgrid.helpers.mail.objects.Content;
-import com.sendgrid.helpers.mail.objects.Email;
+import com.student.studentcoursemanagement.dto.NotificationRecipient;
 import com.student.studentcoursemanagement.model.Course;
+import com.student.studentcoursemanagement.model.EmailJobType;
+import com.student.studentcoursemanagement.model.EmailOutboxJob;
+import com.student.studentcoursemanagement.model.EmailRecipient;
 import com.student.studentcoursemanagement.model.Order;
-import com.student.studentcoursemanagement.model.User;
-import com.student.studentcoursemanagement.repo.UserRepo;
+import com.student.studentcoursemanagement.repo.CourseRepo;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Builds every outgoing email and hands it to the email outbox.
+ * Callers never wait on SendGrid; delivery, retries and dead-lettering happen in EmailOutboxService.
+ */
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     @Autowired
-    private UserRepo userRepo;
+    private CourseRepo courseRepo;
 
-    @Value("${sendgrid.api.key}")
-    private String sendGridApiKey;
+    @Autowired
+    private NotificationRecipientSource recipientSource;
 
-    @Value("${sendgrid.from.email}")
-    private String fromEmail;
+    @Autowired
+    private EmailOutboxService emailOutboxService;
 
-    @Value("${sendgrid.from.name:StudieHub}")
-    private String fromName;
+    @Autowired
+    private EmailTemplates emailTemplates;
+
+    @Autowired
+    private LearnerDigestService learnerDigestService;
 
     @Value("${email.notification.enabled:true}")
     private boolean notificationsEnabled;
 
-    @Value("${email.notification.batch.size:100}")
-    private int batchSize;
+    // immediate: one email per course event; digest: one summary per learner per day (LearnerDigestService)
+    @Value("${email.notification.mode:immediate}")
+    private String notificationMode;
 
-    @Value("${email.notification.batch.delay.ms:5000}")
-    private long batchDelayMs;
-
-    public void sendOtpEmail(String toEmail, String otp) {
-        try {
-            Email from = new Email(fromEmail, fromName);
-            Email to = new Email(toEmail);
-            String subject = "StudieHub - Email Verification OTP";
-            Content content = new Content("text/plain", buildOtpEmailBody(otp));
-            Mail mail = new Mail(from, subject, to, content);
-
-            SendGrid sg = new SendGrid(sendGridApiKey);
-            Request request = new Request();
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
+    // Recipients per SendGrid request (personalizations), at most 1000
+    @Value("${email.notification.batch.size:1000}")
+    private int batchSize;
 
-            Response response = sg.api(request);
+    @PostConstruct
+    public void registerHandlers() {
+        emailOutboxService.registerHandler(EmailJobType.COURSE_ANNOUNCEMENT, this::expandCourseAnnouncement);
+    }
 
-            if (response.getStatusCode() >= 200 && response.getStatusCode() < 300) {
-                logger.info("OTP email sent successfully to: {} (Status: {})", toEmail, response.getStatusCode());
-            } else {
-                logger.error("Failed to send OTP email. Status: {}, Body: {}", response.getStatusCode(),
-                        response.getBody());
-                throw new RuntimeException("Failed to send OTP email. Status: " + response.getStatusCode());
-            }
-        } catch (IOException e) {
-            logger.error("Failed to send OTP email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send OTP email: " + e.getMessage());
-        }
+    /**
+     * Queue an OTP email on the high-priority lane
+     * @return completes when SendGrid accepted the email, or exceptionally once delivery gave up
+     */
+    public CompletableFuture<Void> sendOtpEmail(String toEmail, String otp) {
+        EmailOutboxJob job = EmailOutboxJob.builder()
+                .type(EmailJobType.OTP)
+                .toEmail(toEmail)
+                .subject("StudieHub - Email Verification OTP")
+                .contentType("text/plain")
+                .body(buildOtpEmailBody(otp))
+                .build();
+        return emailOutboxService.enqueueAndDispatch(job);
     }
 
     private String buildOtpEmailBody(String otp) {
-        return String.format(
-                "Welcome to StudieHub!\n\n" +
-                        "Your email verification OTP is: %s\n\n" +
-                        "This OTP is valid for 10 minutes.\n\n" +
-                        "If you didn't request this verification, please ignore this email.\n\n" +
-                        "Best regards,\n" +
-                        "StudieHub Team",
-                otp);
+        Map<String, Object> values = new HashMap<>();
+        values.put("otp", otp);
+        return emailTemplates.get("otp").render(values);
     }
 
     /**
-     * Send course notification to all users asynchronously in batches
+     * Queue a course notification. CREATED is broadcast to every user, UPDATED only goes to the
+     * learners enrolled in the course. Only one outbox job is written here; a worker expands it
+     * into batched jobs of up to 1000 recipients each.
      * 
      * @param course The course that was created or updated
      * @param action "CREATED" or "UPDATED"
      */
-    @Async("emailTaskExecutor")
     public void sendCourseNotificationToAllUsers(Course course, String action) {
+        sendCourseNotificationToAllUsers(course, action, null);
+    }
+
+    /**
+     * Same as above; a notification whose dedupeKey was already queued is skipped
+     */
+    public void sendCourseNotificationToAllUsers(Course course, String action, String dedupeKey) {
         // Check if notifications are enabled
         if (!notificationsEnabled) {
             logger.info("Email notifications are disabled. Skipping notification for course: {}", course.getTitle());
             return;
         }
 
-        logger.info("Starting to send course {} notification for: {}", action, course.getTitle());
-
-        try {
-            // Fetch all users
-            List<User> allUsers = userRepo.findAll();
-            logger.info("Found {} users to notify", allUsers.size());
-
-            if (allUsers.isEmpty()) {
-                logger.warn("No users found to send notifications");
-                return;
-            }
-
-            int totalUsers = allUsers.size();
-            int sentCount = 0;
-            int failedCount = 0;
-
-            // Process users in batches
-            for (int i = 0; i < totalUsers; i += batchSize) {
-                int endIndex = Math.min(i + batchSize, totalUsers);
-                List<User> batch = allUsers.subList(i, endIndex);
-
-                logger.info("Processing batch {}/{} (users {}-{})",
-                        (i / batchSize) + 1,
-                        (int) Math.ceil((double) totalUsers / batchSize),
-                        i + 1,
-                        endIndex);
-
-                // Send emails to current batch
-                for (User user : batch) {
-                    try {
-                        sendCourseNotificationEmail(user, course, action);
-                        sentCount++;
-                    } catch (Exception e) {
-                        failedCount++;
-                        logger.error("Failed to send email to user: {} - {}", user.getEmail(), e.getMessage());
-                    }
-                }
-
-                // Add delay between batches to avoid rate limiting (except for last batch)
-                if (endIndex < totalUsers) {
-                    try {
-                        Thread.sleep(batchDelayMs);
-                        logger.info("Waiting {} seconds before next batch...", batchDelayMs / 1000);
-                    } catch (InterruptedException e) {
-                        logger.error("Batch delay interrupted", e);
-                        Thread.currentThread().interrupt();
-                    }
-                }
-            }
-
-            logger.info("Course notification completed. Sent: {}, Failed: {}, Total: {}",
-                    sentCount, failedCount, totalUsers);
-
-        } catch (Exception e) {
-            logger.error("Error sending course notifications: {}", e.getMessage(), e);
-        }
+        emailOutboxService.enqueueAll(List.of(EmailOutboxJob.builder()
+                .type(EmailJobType.COURSE_ANNOUNCEMENT)
+                .courseId(course.getId())
+                .action(action)
+                .dedupeKey(dedupeKey)
+                .build()));
+        logger.info("Queued course {} notification for: {}", action, course.getTitle());
     }
 
     /**
-     * Send individual course notification email to a user
+     * Expand a COURSE_ANNOUNCEMENT job into COURSE_NOTIFICATION jobs of batchSize recipients,
+     * each sent as one SendGrid request with a personalization per recipient.
+     * Safe to run again after a crash: batches already enqueued are skipped by their dedupe key.
      */
-    private void sendCourseNotificationEmail(User user, Course course, String action) {
-        try {
-            Email from = new Email(fromEmail, fromName);
-            Email to = new Email(user.getEmail());
-            String subject;
-            String body;
-
-            if ("CREATED".equalsIgnoreCase(action)) {
-                subject = "New Course Available: " + course.getTitle();
-                body = buildNewCourseEmailBody(user, course);
-            } else if ("UPDATED".equalsIgnoreCase(action)) {
-                subject = "Course Updated: " + course.getTitle();
-                body = buildCourseUpdateEmailBody(user, course);
-            } else {
-                return;
-            }
-
-            Content content = new Content("text/plain", body);
-            Mail mail = new Mail(from, subject, to, content);
-
-            SendGrid sg = new SendGrid(sendGridApiKey);
-            Request request = new Request();
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
+    private void expandCourseAnnouncement(EmailOutboxJob announcement) {
+        Course course = courseRepo.findById(announcement.getCourseId()).orElse(null);
+        if (course == null) {
+            logger.warn("Course {} no longer exists, dropping its notification", announcement.getCourseId());
+            return;
+        }
 
-            Response response = sg.api(request);
+        String action = announcement.getAction();
+        boolean broadcast;
+        String subject;
+        String body;
+        // Stored on every batch, so batches queued by an earlier run keep the tag in their body
+        String nameTag = EmailOutboxService.newNameTag();
+        if ("CREATED".equalsIgnoreCase(action)) {
+            broadcast = true;
+            subject = "New Course Available: " + course.getTitle();
+            body = buildNewCourseEmailBody(nameTag, course);
+        } else if ("UPDATED".equalsIgnoreCase(action)) {
+            broadcast = false;
+            subject = "Course Updated: " + course.getTitle();
+            body = buildCourseUpdateEmailBody(nameTag, course);
+        } else {
+            return;
+        }
 
-            if (response.getStatusCode() >= 200 && response.getStatusCode() < 300) {
-                logger.debug("Notification email sent to: {}", user.getEmail());
-            } else {
-                throw new IOException("SendGrid returned status: " + response.getStatusCode());
-            }
-        } catch (IOException e) {
-            logger.error("Failed to send notification to: {}", user.getEmail(), e);
-            throw new RuntimeException("Failed to send notification: " + e.getMessage());
+        int perBatch = Math.max(1, Math.min(batchSize, EmailOutboxService.MAX_PERSONALIZATIONS));
+        logger.info("Expanding course {} notification for: {}", action, course.getTitle());
+
+        int[] batchIndex = {0};
+        Consumer<List<NotificationRecipient>> enqueue;
+        if ("digest".equalsIgnoreCase(notificationMode)) {
+            enqueue = users -> {
+                learnerDigestService.record(course, action, users);
+                batchIndex[0]++;
+                emailOutboxService.renewLease(announcement);
+            };
+        } else {
+            // Users are streamed in id order, so a re-run produces the same batches
+            enqueue = users -> {
+                List<EmailRecipient> recipients = new ArrayList<>(users.size());
+                for (NotificationRecipient user : users) {
+                    recipients.add(EmailRecipient.builder().email(user.getEmail()).name(user.getUsername()).build());
+                }
+                enqueueBatch(announcement, batchIndex[0]++, subject, body, nameTag, recipients);
+            };
+        }
+        if (broadcast) {
+            recipientSource.forEachBatch(perBatch, enqueue);
+        } else {
+            recipientSource.forEachEnrolledBatch(course.getId(), perBatch, enqueue);
         }
+        logger.info("Queued {} notification batches for: {}", batchIndex[0], course.getTitle());
+    }
+
+    private void enqueueBatch(EmailOutboxJob announcement, int batchIndex, String subject, String body,
+            String nameTag, List<EmailRecipient> recipients) {
+        emailOutboxService.enqueueAll(List.of(EmailOutboxJob.builder()
+                .type(EmailJobType.COURSE_NOTIFICATION)
+                .subject(subject)
+                .contentType("text/plain")
+                .body(body)
+                .recipients(recipients)
+                .nameTag(nameTag)
+                .dedupeKey(announcement.getId() + ":" + batchIndex)
+                .build()));
+        emailOutboxService.renewLease(announcement);
     }
 
     /**
      * Build email body for new course notification
      */
-    private String buildNewCourseEmailBody(User user, Course course) {
-        return String.format(
-                "Hello %s,\n\n" +
-                        "Exciting news! A new course has been added to StudieHub:\n\n" +
-                        "📚 Course: %s\n" +
-                        "👨‍🏫 Trainer: %s\n" +
-                        "📊 Difficulty: %s\n" +
-                        "🌐 Language: %s\n\n" +
-                        "Description:\n%s\n\n" +
-                        "Don't miss out on this opportunity to expand your knowledge!\n\n" +
-                        "Login to StudieHub to explore this course and start learning today.\n\n" +
-                        "Happy Learning!\n" +
-                        "The StudieHub Team",
-                user.getUsername(),
-                course.getTitle(),
-                course.getTrainerName(),
-                course.getDifficulty(),
-                course.getLanguage(),
-                course.getDescription().length() > 200
-                        ? course.getDescription().substring(0, 200) + "..."
-                        : course.getDescription());
+    private String buildNewCourseEmailBody(String name, Course course) {
+        return emailTemplates.get("course-created").render(courseValues(name, course));
     }
 
     /**
      * Build email body for course update notification
      */
-    private String buildCourseUpdateEmailBody(User user, Course course) {
-        return String.format(
-                "Hello %s,\n\n" +
-                        "A course has been updated on StudieHub:\n\n" +
-                        "📚 Course: %s\n" +
-                        "👨‍🏫 Trainer: %s\n" +
-                        "📊 Difficulty: %s\n" +
-                        "🌐 Language: %s\n\n" +
-                        "Updated Description:\n%s\n\n" +
-                        "Check out the latest changes and continue your learning journey!\n\n" +
-                        "Login to StudieHub to see what's new.\n\n" +
-                        "Happy Learning!\n" +
-                        "The StudieHub Team",
-                user.getUsername(),
-                course.getTitle(),
-                course.getTrainerName(),
-                course.getDifficulty(),
-                course.getLanguage(),
-                course.getDescription().length() > 200
-                        ? course.getDescription().substring(0, 200) + "..."
-                        : course.getDescription());
+    private String buildCourseUpdateEmailBody(String name, Course course) {
+        return emailTemplates.get("course-updated").render(courseValues(name, course));
+    }
+
+    private Map<String, Object> courseValues(String name, Course course) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", name);
+        values.put("title", course.getTitle());
+        values.put("trainer", course.getTrainerName());
+        values.put("difficulty", course.getDifficulty());
+        values.put("language", course.getLanguage());
+        values.put("description", course.getDescription().length() > 200
+                ? course.getDescription().substring(0, 200) + "..."
+                : course.getDescription());
+        return values;
     }
 
     /**
-     * Send payment receipt email asynchronously
+     * Queue the payment receipt email
      * 
      * @param order The order containing payment details
      */
-    @Async("emailTaskExecutor")
     public void sendPaymentReceiptEmail(Order order) {
-        try {
-            if (order == null || order.getUserId() == null) {
-                logger.warn("Invalid order data for receipt email");
-                return;
-            }
-
-            logger.info("Sending payment receipt email for order: {}", order.getId());
-
-            // For now, we'll send to a placeholder email
-            // In production, fetch user email from UserService
-            String userEmail = order.getUserId() + "@study.com"; // Placeholder - should fetch from UserService
-            String subject = "Payment Receipt - Course Purchase";
-            String emailBody = buildPaymentReceiptEmailBody(order);
-
-            Email from = new Email(fromEmail, fromName);
-            Email to = new Email(userEmail);
-            Content content = new Content("text/html", emailBody);
-            Mail mail = new Mail(from, subject, to, content);
-
-            SendGrid sg = new SendGrid(sendGridApiKey);
-            Request request = new Request();
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
-
-            Response response = sg.api(request);
-
-            if (response.getStatusCode() >= 200 && response.getStatusCode() < 300) {
-                logger.info("Payment receipt email sent successfully for order: {} (Status: {})",
-                        order.getId(), response.getStatusCode());
-            } else {
-                logger.error("Failed to send receipt email. Status: {}, Body: {}",
-                        response.getStatusCode(), response.getBody());
-            }
-        } catch (IOException e) {
-            logger.error("Failed to send payment receipt email for order: {}", order.getId(), e);
+        if (order == null || order.getUserId() == null) {
+            logger.warn("Invalid order data for receipt email");
+            return;
         }
+
+        // For now, we'll send to a placeholder email
+        // In production, fetch user email from UserService
+        String userEmail = order.getUserId() + "@study.com"; // Placeholder - should fetch from UserService
+
+        emailOutboxService.enqueue(EmailOutboxJob.builder()
+                .type(EmailJobType.PAYMENT_RECEIPT)
+                .toEmail(userEmail)
+                .subject("Payment Receipt - Course Purchase")
+                .contentType("text/html")
+                .body(buildPaymentReceiptEmailBody(order))
+                .build());
+        logger.info("Queued payment receipt email for order: {}", order.getId());
     }
 
     /**
      * Build HTML email body for payment receipt
      */
     private String buildPaymentReceiptEmailBody(Order order) {
-        return String.format(
-                "<html>" +
-                        "<body style='font-family: Arial, sans-serif; color: #333;'>" +
-                        "<div style='max-width: 600px; margin: 0 auto;'>" +
-                        "<h2 style='color: #2c3e50; border-bottom: 2px solid #3498db; padding-bottom: 10px;'>" +
-                        "✓ Payment Receipt</h2>" +
-                        "<p>Dear User,</p>" +
-                        "<p>Thank you for your purchase! Here are your order details:</p>" +
-                        "<table style='width: 100%%; border-collapse: collapse; margin: 20px 0;'>" +
-                        "<tr style='background-color: #ecf0f1;'>" +
-                        "<td style='padding: 10px; font-weight: bold;'>Order ID:</td>" +
-                        "<td style='padding: 10px;'>%s</td>" +
-                        "</tr>" +
-                        "<tr>" +
-                        "<td style='padding: 10px; font-weight: bold;'>Course Name:</td>" +
-                        "<td style='padding: 10px;'>%s</td>" +
-                        "</tr>" +
-                        "<tr style='background-color: #ecf0f1;'>" +
-                        "<td style='padding: 10px; font-weight: bold;'>Original Price:</td>" +
-                        "<td style='padding: 10px;'>₹%d</td>" +
-                        "</tr>" +
-                        "<tr>" +
-                        "<td style='padding: 10px; font-weight: bold;'>Discount:</td>" +
-                        "<td style='padding: 10px;'>₹%d</td>" +
-                        "</tr>" +
-                        "%s" +
-                        "<tr style='background-color: #27ae60; color: white; font-weight: bold;'>" +
-                        "<td style='padding: 10px;'>Final Amount Paid:</td>" +
-                        "<td style='padding: 10px;'>₹%d</td>" +
-                        "</tr>" +
-                        "<tr style='background-color: #ecf0f1;'>" +
-                        "<td style='padding: 10px; font-weight: bold;'>Transaction ID:</td>" +
-                        "<td style='padding: 10px;'>%s</td>" +
-                        "</tr>" +
-                        "<tr>" +
-                        "<td style='padding: 10px; font-weight: bold;'>Date:</td>" +
-                        "<td style='padding: 10px;'>%s</td>" +
-                        "</tr>" +
-                        "</table>" +
-                        "<p style='background-color: #d5f4e6; padding: 15px; border-radius: 5px; color: #27ae60; font-weight: bold;'>"
-                        +
-                        "✓ Your course access has been activated! You can start learning immediately." +
-                        "</p>" +
-                        "<p>Thank you for learning with StudieHub!</p>" +
-                        "<hr style='margin: 20px 0;'>" +
-                        "<p style='font-size: 12px; color: #7f8c8d;'>" +
-                        "This is an automated receipt. Please do not reply to this email. " +
-                        "If you have any questions, visit our support page." +
-                        "</p>" +
-                        "</div>" +
-                        "</body>" +
-                        "</html>",
-                order.getId(),
-                order.getCourseId(), // In production, fetch course name
-                order.getOriginalPrice(),
-                order.getDiscountAmount(),
-                order.getCouponCode() != null && !order.getCouponCode().isEmpty()
-                        ? String.format(
-                                "<tr style='background-color: #ecf0f1;'><td style='padding: 10px; font-weight: bold;'>Coupon Code:</td><td style='padding: 10px;'>%s</td></tr>",
-                                order.getCouponCode())
-                        : "",
-                order.getFinalAmount(),
-                order.getRazorpayPaymentId() != null ? order.getRazorpayPaymentId() : order.getId(),
-                order.getCompletedAt() != null ? order.getCompletedAt().toString() : "Just now");
+        Map<String, Object> values = new HashMap<>();
+        values.put("orderId", order.getId());
+        values.put("courseName", order.getCourseId()); // In production, fetch course name
+        values.put("originalPrice", order.getOriginalPrice());
+        values.put("discount", order.getDiscountAmount());
+        if (order.getCouponCode() != null && !order.getCouponCode().isEmpty()) {
+            Map<String, Object> coupon = new HashMap<>();
+            coupon.put("couponCode", order.getCouponCode());
+            values.put("couponRow", emailTemplates.get("payment-receipt-coupon").render(coupon));
+        }
+        values.put("finalAmount", order.getFinalAmount());
+        values.put("transactionId",
+                order.getRazorpayPaymentId() != null ? order.getRazorpayPaymentId() : order.getId());
+        values.put("date", order.getCompletedAt() != null ? order.getCompletedAt().toString() : "Just now");
+        return emailTemplates.get("payment-receipt").render(values);
     }
 }
@@ -0,0 +1,57 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.util.EmailTemplate;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Email templates from classpath:templates/email, compiled once at startup.
+ * A template is named after its file without extension; .html files are HTML, .txt files plain text.
+ */
+@Component
+public class EmailTemplates {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplates.class);
+    private static final String LOCATION = "classpath*:templates/email/*.*";
+
+    private final Map<String, EmailTemplate> templates = new HashMap<>();
+
+    @PostConstruct
+    public void load() throws IOException {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            String filename = resource.getFilename();
+            int dot = filename.lastIndexOf('.');
+            String extension = filename.substring(dot + 1);
+            if (!extension.equals("html") && !extension.equals("txt")) {
+                continue;
+            }
+            String source = resource.getContentAsString(StandardCharsets.UTF_8);
+            // Editors add a final newline; the bodies never end with one
+            if (source.endsWith("\n")) {
+                source = source.substring(0, source.length() - 1);
+            }
+            templates.put(filename.substring(0, dot), EmailTemplate.compile(source, extension.equals("html")));
+        }
+        logger.info("Compiled {} email templates", templates.size());
+    }
+
+    /**
+     * @throws IllegalStateException if no template has that name
+     */
+    public EmailTemplate get(String name) {
+        EmailTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalStateException("Unknown email template: " + name);
+        }
+        return template;
+    }
+}
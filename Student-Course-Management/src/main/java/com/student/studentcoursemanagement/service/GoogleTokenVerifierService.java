@@ -0,0 +1,245 @@
+package com.student.studentcoursemanagement.service;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Verifies Google ID tokens against one cached set of Google signing keys (JWKS), indexed by key id.
+ * Keys are refreshed in the background before they expire, so logins never wait on a download after
+ * warm-up. A token signed with a key id the cache does not know yet (Google rotated its keys) triggers
+ * an immediate refetch, at most once per google.certs.min.refetch.seconds so forged key ids cannot
+ * turn logins into key downloads. The key URL is configurable (google.certs.url) to point at a local
+ * stand-in key server.
+ */
+@Service
+public class GoogleTokenVerifierService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoogleTokenVerifierService.class);
+
+    private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+    private static final long CLOCK_SKEW_SECONDS = 300;
+
+    // Used when the key response carries no Cache-Control max-age
+    private static final long DEFAULT_KEYS_TTL_SECONDS = 3600;
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${google.clientId:}")
+    private String googleClientId;
+
+    @Value("${google.certs.url:https://www.googleapis.com/oauth2/v3/certs}")
+    private String certsUrl;
+
+    // Refresh this long before the keys expire
+    @Value("${google.certs.refresh.margin.seconds:900}")
+    private long refreshMarginSeconds;
+
+    @Value("${google.certs.retry.seconds:60}")
+    private long retrySeconds;
+
+    // Minimum gap between downloads triggered by an unknown key id
+    @Value("${google.certs.min.refetch.seconds:30}")
+    private long minRefetchSeconds;
+
+    private final HttpTransport transport = new NetHttpTransport();
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+
+    private volatile Keys keys = new Keys(Collections.emptyMap(), 0);
+    private volatile long lastFetchMillis;
+
+    private Counter refreshSuccess;
+    private Counter refreshFailure;
+
+    @PostConstruct
+    public void init() {
+        refreshSuccess = Counter.builder("auth.google.certs.refresh").tag("result", "success").register(meterRegistry);
+        refreshFailure = Counter.builder("auth.google.certs.refresh").tag("result", "failure").register(meterRegistry);
+    }
+
+    /**
+     * Load the keys once at startup so the first Google login does not pay for the download
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        taskScheduler.schedule(this::refreshKeys, Instant.now());
+    }
+
+    /**
+     * Verify an ID token against the given audience (client id)
+     * @return the verified token, or null if it is malformed or its signature, issuer, audience or expiry is invalid
+     * @throws IOException if the signing keys are needed and cannot be downloaded
+     */
+    public GoogleIdToken verify(String idToken, String audience) throws GeneralSecurityException, IOException {
+        GoogleIdToken token;
+        try {
+            token = GoogleIdToken.parse(jsonFactory, idToken);
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+
+        PublicKey key = keyFor(token.getHeader().getKeyId());
+        if (key == null || !token.verifySignature(key)) {
+            return null;
+        }
+        boolean valid = token.verifyIssuer(ISSUERS)
+                && token.verifyAudience(Collections.singletonList(audience))
+                && token.verifyTime(System.currentTimeMillis(), CLOCK_SKEW_SECONDS);
+        return valid ? token : null;
+    }
+
+    public String getDefaultClientId() {
+        return googleClientId;
+    }
+
+    /**
+     * Cached key for a key id, downloading the keys first if they are unknown or expired
+     */
+    private PublicKey keyFor(String keyId) throws GeneralSecurityException, IOException {
+        if (keyId == null) {
+            return null;
+        }
+        Keys current = keys;
+        PublicKey key = current.byKeyId.get(keyId);
+        if (key != null && !current.isExpired()) {
+            return key;
+        }
+        synchronized (this) {
+            current = keys;
+            key = current.byKeyId.get(keyId);
+            boolean stale = key == null || current.isExpired();
+            if (stale && System.currentTimeMillis() - lastFetchMillis >= minRefetchSeconds * 1000) {
+                current = fetchKeys();
+                key = current.byKeyId.get(keyId);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Download the current keys, swap them in and schedule the next refresh
+     */
+    void refreshKeys() {
+        Instant next;
+        try {
+            Keys fresh;
+            synchronized (this) {
+                fresh = fetchKeys();
+            }
+            long refreshAt = fresh.expiresAtMillis - refreshMarginSeconds * 1000;
+            next = Instant.ofEpochMilli(Math.max(refreshAt, System.currentTimeMillis() + retrySeconds * 1000));
+            logger.info("Google signing keys refreshed, next refresh at {}", next);
+        } catch (GeneralSecurityException | IOException e) {
+            next = Instant.now().plusSeconds(retrySeconds);
+            logger.error("Failed to refresh Google signing keys, retrying at {}: {}", next, e.getMessage());
+        }
+        taskScheduler.schedule(this::refreshKeys, next);
+    }
+
+    /**
+     * Download and parse the JWKS; callers hold the lock
+     */
+    private Keys fetchKeys() throws GeneralSecurityException, IOException {
+        lastFetchMillis = System.currentTimeMillis();
+        try {
+            HttpResponse response = transport.createRequestFactory().buildGetRequest(new GenericUrl(certsUrl))
+                    .execute();
+            Map<String, PublicKey> byKeyId = new HashMap<>();
+            long ttlSeconds;
+            try {
+                GenericJson jwks = jsonFactory.createJsonParser(response.getContent(), StandardCharsets.UTF_8)
+                        .parse(GenericJson.class);
+                Object entries = jwks.get("keys");
+                if (entries instanceof List<?> list) {
+                    for (Object entry : list) {
+                        if (entry instanceof Map<?, ?> jwk && "RSA".equals(jwk.get("kty")) && jwk.get("kid") != null) {
+                            byKeyId.put((String) jwk.get("kid"), rsaKey((String) jwk.get("n"), (String) jwk.get("e")));
+                        }
+                    }
+                }
+                ttlSeconds = ttlSeconds(response);
+            } finally {
+                response.disconnect();
+            }
+            if (byKeyId.isEmpty()) {
+                throw new IOException("No RSA signing keys at " + certsUrl);
+            }
+
+            Keys fresh = new Keys(Collections.unmodifiableMap(byKeyId), lastFetchMillis + ttlSeconds * 1000);
+            keys = fresh;
+            refreshSuccess.increment();
+            return fresh;
+        } catch (GeneralSecurityException | IOException e) {
+            refreshFailure.increment();
+            throw e;
+        }
+    }
+
+    private static PublicKey rsaKey(String modulus, String exponent) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        RSAPublicKeySpec spec = new RSAPublicKeySpec(new BigInteger(1, decoder.decode(modulus)),
+                new BigInteger(1, decoder.decode(exponent)));
+        return KeyFactory.getInstance("RSA").generatePublic(spec);
+    }
+
+    private static long ttlSeconds(HttpResponse response) {
+        String cacheControl = response.getHeaders().getCacheControl();
+        Matcher maxAge = cacheControl != null ? MAX_AGE.matcher(cacheControl) : null;
+        if (maxAge == null || !maxAge.find()) {
+            return DEFAULT_KEYS_TTL_SECONDS;
+        }
+        Long age = response.getHeaders().getAge();
+        return Math.max(0, Long.parseLong(maxAge.group(1)) - (age != null ? age : 0));
+    }
+
+    private static final class Keys {
+        private final Map<String, PublicKey> byKeyId;
+        private final long expiresAtMillis;
+
+        private Keys(Map<String, PublicKey> byKeyId, long expiresAtMillis) {
+            this.byKeyId = byKeyId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.dto.NotificationRecipient;
+import com.student.studentcoursemanagement.model.Course;
+import com.student.studentcoursemanagement.model.EmailJobType;
+import com.student.studentcoursemanagement.model.EmailOutboxJob;
+import com.student.studentcoursemanagement.model.LearnerDigest;
+import com.student.studentcoursemanagement.model.LearnerDigestCourse;
+import com.student.studentcoursemanagement.util.EmailTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Digest mode for course notifications (email.notification.mode=digest). Course events are
+ * folded into one learner_digests record per learner per day, and a daily job sends each
+ * learner a single summary of the previous days through the outbox, so a learner gets at
+ * most one notification email per day whatever happens to the catalog.
+ */
+@Service
+public class LearnerDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LearnerDigestService.class);
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailTemplates emailTemplates;
+
+    /**
+     * Add a course event to today's digest of every recipient, with one bulk upsert
+     */
+    public void record(Course course, String action, List<NotificationRecipient> recipients) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        LocalDate day = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        String coursePath = "courses." + course.getId();
+        String actionField = "CREATED".equalsIgnoreCase(action) ? ".created" : ".updated";
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LearnerDigest.class);
+        for (NotificationRecipient recipient : recipients) {
+            Update update = new Update()
+                    .set("email", recipient.getEmail())
+                    .set("username", recipient.getUsername())
+                    .set(coursePath + ".title", course.getTitle())
+                    .set(coursePath + actionField, true)
+                    .setOnInsert("userId", recipient.getId())
+                    .setOnInsert("day", day)
+                    .setOnInsert("sent", false)
+                    .setOnInsert("createdAt", now);
+            bulk.upsert(Query.query(Criteria.where("_id").is(recipient.getId() + ":" + day)), update);
+        }
+        bulk.execute();
+    }
+
+    /**
+     * Queue the digests of every day before today that have not been sent yet, one email per learner:
+     * unsent records of several days are merged into a single summary.
+     * A learner whose digest fails is logged and left unsent for the next run; the rest still go out.
+     */
+    @Scheduled(cron = "${email.digest.cron:0 0 7 * * *}")
+    public void sendDigests() {
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        int failed = 0;
+        String lastId = null;
+        List<LearnerDigest> learner = new ArrayList<>();
+        List<LearnerDigest> page;
+        do {
+            // Keyset on _id (userId:day, served by unsent_id_idx): records of one learner are adjacent,
+            // in day order, and digests that failed are not fetched again in this run
+            Criteria criteria = Criteria.where("sent").is(false).and("day").lt(today);
+            if (lastId != null) {
+                criteria = criteria.and("_id").gt(lastId);
+            }
+            page = mongoTemplate.find(Query.query(criteria).with(Sort.by("_id")).limit(PAGE_SIZE),
+                    LearnerDigest.class);
+            for (LearnerDigest digest : page) {
+                lastId = digest.getId();
+                if (!learner.isEmpty() && !learner.get(0).getUserId().equals(digest.getUserId())) {
+                    if (trySend(learner)) {
+                        total++;
+                    } else {
+                        failed++;
+                    }
+                    learner = new ArrayList<>();
+                }
+                learner.add(digest);
+            }
+        } while (page.size() == PAGE_SIZE);
+        if (!learner.isEmpty()) {
+            if (trySend(learner)) {
+                total++;
+            } else {
+                failed++;
+            }
+        }
+
+        if (total > 0 || failed > 0) {
+            logger.info("Queued {} learner digests, {} failed", total, failed);
+        }
+    }
+
+    private boolean trySend(List<LearnerDigest> digests) {
+        try {
+            send(digests);
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to queue digest for user {}: {}", digests.get(0).getUserId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Send one learner's unsent days (oldest first) as one email and mark them sent
+     */
+    private void send(List<LearnerDigest> digests) {
+        LearnerDigest latest = digests.get(digests.size() - 1);
+        Map<String, LearnerDigestCourse> courses = new LinkedHashMap<>();
+        for (LearnerDigest digest : digests) {
+            if (digest.getCourses() != null) {
+                digest.getCourses().forEach((id, course) -> courses.merge(id, course, LearnerDigestService::merge));
+            }
+        }
+
+        if (latest.getEmail() != null && !courses.isEmpty()) {
+            EmailTemplate template = emailTemplates.get("learner-digest");
+            LocalDate first = digests.get(0).getDay();
+            Map<String, Object> values = new HashMap<>();
+            values.put("name", latest.getUsername());
+            values.put("period", first.equals(latest.getDay())
+                    ? "on " + first
+                    : "from " + first + " to " + latest.getDay());
+            values.put("courses", renderCourses(courses));
+
+            // Keyed by the newest record, so queueing it again after a crash is a no-op
+            emailOutboxService.enqueueAll(List.of(EmailOutboxJob.builder()
+                    .type(EmailJobType.LEARNER_DIGEST)
+                    .toEmail(latest.getEmail())
+                    .subject("Your StudieHub course updates")
+                    .contentType(template.getContentType())
+                    .body(template.render(values))
+                    .dedupeKey("digest:" + latest.getId())
+                    .build()));
+        }
+
+        List<String> ids = new ArrayList<>(digests.size());
+        for (LearnerDigest digest : digests) {
+            ids.add(digest.getId());
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                new Update().set("sent", true), LearnerDigest.class);
+    }
+
+    /**
+     * One course seen on several days: a course created in the period stays "New course"
+     */
+    private static LearnerDigestCourse merge(LearnerDigestCourse older, LearnerDigestCourse newer) {
+        return LearnerDigestCourse.builder()
+                .title(newer.getTitle())
+                .created(older.isCreated() || newer.isCreated())
+                .updated(older.isUpdated() || newer.isUpdated())
+                .build();
+    }
+
+    private String renderCourses(Map<String, LearnerDigestCourse> courses) {
+        EmailTemplate line = emailTemplates.get("learner-digest-course");
+        StringBuilder out = new StringBuilder();
+        Map<String, Object> values = new HashMap<>();
+        for (LearnerDigestCourse course : courses.values()) {
+            if (out.length() > 0) {
+                out.append('\n');
+            }
+            values.put("label", course.isCreated() ? "New course" : "Updated");
+            values.put("title", course.getTitle());
+            line.renderTo(out, values);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.dto.NotificationRecipient;
+import com.student.studentcoursemanagement.model.Enrollment;
+import com.student.studentcoursemanagement.model.User;
+import com.student.studentcoursemanagement.repo.EnrollmentRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams notification recipients from the users collection through a MongoDB cursor, either
+ * every user or the learners enrolled in one course. Only id, email and username are read,
+ * and at most one batch is held in memory at a time, however many users there are.
+ */
+@Component
+public class NotificationRecipientSource {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private EnrollmentRepo enrollmentRepo;
+
+    // Documents fetched per cursor round trip
+    @Value("${email.notification.cursor.batch.size:500}")
+    private int cursorBatchSize;
+
+    /**
+     * Hand every user with an email to the consumer in batches of batchSize, ordered by id
+     * so that repeated scans produce the same batches
+     */
+    public void forEachBatch(int batchSize, Consumer<List<NotificationRecipient>> consumer) {
+        Query query = new Query().with(Sort.by("_id")).cursorBatchSize(cursorBatchSize);
+        query.fields().include("email", "username");
+
+        List<NotificationRecipient> batch = new ArrayList<>(batchSize);
+        try (Stream<NotificationRecipient> users = mongoTemplate.stream(query, NotificationRecipient.class,
+                mongoTemplate.getCollectionName(User.class))) {
+            Iterator<NotificationRecipient> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                NotificationRecipient user = iterator.next();
+                if (user.getEmail() == null || user.getEmail().isBlank()) {
+                    continue;
+                }
+                batch.add(user);
+                if (batch.size() >= batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+
+    /**
+     * Hand the learners enrolled in a course to the consumer in batches of batchSize. User IDs are
+     * streamed from the enrollments in userId order and each batch is resolved with one $in query.
+     */
+    public void forEachEnrolledBatch(String courseId, int batchSize, Consumer<List<NotificationRecipient>> consumer) {
+        List<String> userIds = new ArrayList<>(batchSize);
+        try (Stream<Enrollment> enrollments = enrollmentRepo.streamUserIdsByCourseId(courseId)) {
+            Iterator<Enrollment> iterator = enrollments.iterator();
+            while (iterator.hasNext()) {
+                userIds.add(iterator.next().getUserId());
+                if (userIds.size() >= batchSize) {
+                    resolve(userIds, consumer);
+                    userIds = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!userIds.isEmpty()) {
+            resolve(userIds, consumer);
+        }
+    }
+
+    private void resolve(List<String> userIds, Consumer<List<NotificationRecipient>> consumer) {
+        Query query = Query.query(Criteria.where("id").in(userIds)).with(Sort.by("_id"));
+        query.fields().include("email", "username");
+
+        List<NotificationRecipient> recipients = mongoTemplate.query(User.class)
+                .as(NotificationRecipient.class)
+                .matching(query)
+                .all()
+                .stream()
+                .filter(user -> user.getEmail() != null && !user.getEmail().isBlank())
+                .toList();
+        if (!recipients.isEmpty()) {
+            consumer.accept(recipients);
+        }
+    }
+}
@@ -1,16 +1,15 @@
 package com.student.studentcoursemanagement.service;
 
-import com.student.studentcoursemanagement.model.EmailOtp;
-import com.student.studentcoursemanagement.repo.EmailOtpRepo;
+import com.student.studentcoursemanagement.dto.OtpDispatchDTO;
+import com.student.studentcoursemanagement.model.OtpDeliveryStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.Base64;
 
 @Service
 public class OtpService {
@@ -22,82 +21,76 @@ public class OtpService {
     private final SecureRandom random = new SecureRandom();
 
     @Autowired
-    private EmailOtpRepo otpRepo;
+    private OtpStore otpStore;
 
     @Autowired
     private EmailService emailService;
 
     /**
-     * Generate and send OTP to email
+     * Generate an OTP and queue its email on the high-priority outbox lane.
+     * Returns without waiting for SendGrid; poll getDeliveryStatus with the returned token for the outcome.
+     * @return PENDING once queued, FAILED if the email could not be queued
      */
-    @Transactional
-    public void generateAndSendOtp(String email) {
-        // Delete any existing OTP for this email
-        otpRepo.deleteByEmail(email);
-
-        // Generate 6-digit OTP
+    public OtpDispatchDTO generateAndSendOtp(String email) {
+        // Generate 6-digit OTP, replacing any existing one for this email
         String otp = generateOtp();
+        String statusToken = generateStatusToken();
+        otpStore.put(email, otp, statusToken, LocalDateTime.now().plusMinutes(OTP_EXPIRATION_MINUTES));
+
+        // Send OTP email in the background
+        try {
+            emailService.sendOtpEmail(email, otp).whenComplete((result, error) -> {
+                OtpDeliveryStatus status = error == null ? OtpDeliveryStatus.SENT : OtpDeliveryStatus.FAILED;
+                otpStore.updateDeliveryStatus(email, otp, status);
+                if (error != null) {
+                    logger.error("OTP email delivery failed for email: {} - {}", email, error.getMessage());
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Failed to queue OTP email for email: {} - {}", email, e.getMessage());
+            otpStore.updateDeliveryStatus(email, otp, OtpDeliveryStatus.FAILED);
+            return new OtpDispatchDTO(OtpDeliveryStatus.FAILED, null);
+        }
 
-        // Create and save OTP record
-        EmailOtp emailOtp = EmailOtp.builder()
-                .email(email)
-                .otp(otp)
-                .createdAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.now().plusMinutes(OTP_EXPIRATION_MINUTES))
-                .verified(false)
-                .attemptCount(0)
-                .build();
-
-        otpRepo.save(emailOtp);
-
-        // Send OTP email
-        emailService.sendOtpEmail(email, otp);
+        logger.info("OTP generated and queued for email: {}", email);
+        return new OtpDispatchDTO(OtpDeliveryStatus.PENDING, statusToken);
+    }
 
-        logger.info("OTP generated and sent to email: {}", email);
+    /**
+     * Delivery status of the current OTP for email, or null if there is none or the token does not match
+     */
+    public OtpDeliveryStatus getDeliveryStatus(String email, String statusToken) {
+        return otpStore.getDeliveryStatus(email, statusToken);
     }
 
     /**
-     * Verify OTP for email
+     * Verify OTP for email. Attempts are counted atomically in MongoDB, so the limit
+     * holds whichever instance serves each attempt.
      */
-    @Transactional
     public boolean verifyOtp(String email, String otp) {
-        Optional<EmailOtp> otpOptional = otpRepo.findByEmail(email);
-
-        if (otpOptional.isEmpty()) {
-            logger.warn("No OTP found for email: {}", email);
-            return false;
-        }
-
-        EmailOtp emailOtp = otpOptional.get();
-
-        // Check if already verified
-        if (emailOtp.isVerified()) {
-            logger.warn("OTP already verified for email: {}", email);
-            return true;
-        }
-
-        // Check if expired
-        if (LocalDateTime.now().isAfter(emailOtp.getExpiresAt())) {
-            logger.warn("OTP expired for email: {}", email);
-            otpRepo.deleteByEmail(email);
+        OtpStore.Entry entry = otpStore.recordAttempt(email);
+
+        if (entry == null) {
+            // Check if already verified
+            OtpStore.Entry current = otpStore.get(email);
+            if (current != null && current.isVerified()) {
+                logger.warn("OTP already verified for email: {}", email);
+                return true;
+            }
+            logger.warn("No OTP found or OTP expired for email: {}", email);
             return false;
         }
 
-        // Check attempt count
-        if (emailOtp.getAttemptCount() >= MAX_ATTEMPTS) {
+        // Give up once the limit is used
+        if (entry.getAttemptCount() > MAX_ATTEMPTS) {
             logger.warn("Max OTP attempts exceeded for email: {}", email);
-            otpRepo.deleteByEmail(email);
+            otpStore.remove(email);
             return false;
         }
 
-        // Increment attempt count
-        emailOtp.setAttemptCount(emailOtp.getAttemptCount() + 1);
-        otpRepo.save(emailOtp);
-
         // Verify OTP
-        if (emailOtp.getOtp().equals(otp)) {
-            emailOtp.setVerified(true);
-            otpRepo.save(emailOtp);
+        if (entry.getOtp().equals(otp)) {
+            otpStore.markVerified(email, otp);
             logger.info("OTP verified successfully for email: {}", email);
             return true;
         }
@@ -110,8 +103,8 @@ public class OtpService {
      * Check if email has been verified
      */
     public boolean isEmailVerified(String email) {
-        Optional<EmailOtp> otpOptional = otpRepo.findByEmail(email);
-        return otpOptional.isPresent() && otpOptional.get().isVerified();
+        OtpStore.Entry entry = otpStore.get(email);
+        return entry != null && entry.isVerified();
     }
 
     /**
@@ -122,12 +115,20 @@ public class OtpService {
         return String.valueOf(otp);
     }
 
+    /**
+     * Random token the requesting client polls the delivery status with
+     */
+    private String generateStatusToken() {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
     /**
      * Delete OTP record after successful verification
      */
-    @Transactional
     public void deleteOtp(String email) {
-        otpRepo.deleteByEmail(email);
+        otpStore.remove(email);
         logger.info("OTP deleted for email: {}", email);
     }
 }
@@ -0,0 +1,231 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.model.EmailOtp;
+import com.student.studentcoursemanagement.model.OtpDeliveryStatus;
+import com.student.studentcoursemanagement.repo.EmailOtpRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OTP records keyed by email. The email_otps collection is the source of truth for the code, the
+ * attempt count and the verified flag, so any instance can verify a code issued by another and the
+ * attempt limit holds across instances: issuing is one upsert and each verify attempt one atomic
+ * findAndModify. Delivery status is only known to the instance that queued the email; it is kept in
+ * memory there for status polls and written behind to MongoDB by a scheduled flush.
+ * Codes are deliberately not read from a warmed in-memory copy: a per-instance copy let an
+ * instance accept a code already replaced or verified elsewhere, and gave every instance its own
+ * attempt budget, multiplying the attempt limit by the number of instances.
+ */
+@Component
+public class OtpStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtpStore.class);
+
+    @Autowired
+    private EmailOtpRepo otpRepo;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // OTPs issued by this instance, for their delivery status
+    private final Map<String, Entry> issued = new ConcurrentHashMap<>();
+
+    // Email -> version of its last unflushed delivery status change
+    private final Map<String, Long> dirty = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Replace the OTP of an email with a fresh one
+     */
+    public Entry put(String email, String otp, String statusToken, LocalDateTime expiresAt) {
+        Entry entry = new Entry(email, otp, statusToken, LocalDateTime.now(), expiresAt, false, 0,
+                OtpDeliveryStatus.PENDING);
+        mongoTemplate.upsert(byEmail(email), entry.toUpdate(), EmailOtp.class);
+        issued.put(email, entry);
+        return entry;
+    }
+
+    /**
+     * Current unexpired OTP of an email, or null
+     */
+    public Entry get(String email) {
+        EmailOtp stored = otpRepo.findByEmail(email).orElse(null);
+        if (stored == null || stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        return Entry.from(stored);
+    }
+
+    /**
+     * Count one verify attempt against the current unverified, unexpired OTP of an email
+     * @return the OTP with its attempt count after this attempt, or null if there is none
+     */
+    public Entry recordAttempt(String email) {
+        Query query = Query.query(Criteria.where("email").is(email)
+                .and("verified").is(false)
+                .and("expiresAt").gt(LocalDateTime.now()));
+        EmailOtp updated = mongoTemplate.findAndModify(query, new Update().inc("attemptCount", 1),
+                FindAndModifyOptions.options().returnNew(true), EmailOtp.class);
+        return updated != null ? Entry.from(updated) : null;
+    }
+
+    /**
+     * Mark the OTP verified, unless it has been replaced in the meantime
+     */
+    public void markVerified(String email, String otp) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("email").is(email).and("otp").is(otp)),
+                new Update().set("verified", true), EmailOtp.class);
+    }
+
+    public void remove(String email) {
+        issued.remove(email);
+        otpRepo.deleteByEmail(email);
+    }
+
+    /**
+     * Delivery status of the current OTP of an email, or null if there is none or statusToken
+     * is not the one it was issued with
+     */
+    public OtpDeliveryStatus getDeliveryStatus(String email, String statusToken) {
+        Entry entry = issued.get(email);
+        if (entry == null || entry.getExpiresAt().isBefore(LocalDateTime.now()) || !entry.hasStatusToken(statusToken)) {
+            // Not issued here, or replaced by another instance since
+            entry = get(email);
+        }
+        return entry != null && entry.hasStatusToken(statusToken) ? entry.getDeliveryStatus() : null;
+    }
+
+    /**
+     * Record the delivery outcome, unless the OTP has been replaced since it was sent
+     */
+    public void updateDeliveryStatus(String email, String otp, OtpDeliveryStatus status) {
+        Entry entry = issued.get(email);
+        if (entry != null && entry.getOtp().equals(otp)) {
+            entry.deliveryStatus = status;
+            dirty.put(email, versions.incrementAndGet());
+        }
+    }
+
+    /**
+     * Write changed delivery statuses behind to MongoDB and drop expired entries from memory.
+     * A change is only marked clean once written and if it was not changed again during the write.
+     */
+    @Scheduled(fixedDelayString = "${otp.store.flush.interval.ms:1000}")
+    public void flush() {
+        List<String> emails = new ArrayList<>(dirty.keySet());
+        for (String email : emails) {
+            Long version = dirty.get(email);
+            Entry entry = issued.get(email);
+            try {
+                if (entry != null) {
+                    // Matching the code keeps a late status from landing on a newer OTP
+                    mongoTemplate.updateFirst(
+                            Query.query(Criteria.where("email").is(email).and("otp").is(entry.getOtp())),
+                            new Update().set("deliveryStatus", entry.getDeliveryStatus()), EmailOtp.class);
+                }
+                dirty.remove(email, version);
+            } catch (Exception e) {
+                // Still dirty; retried on the next flush
+                logger.error("Failed to persist OTP delivery status for email: {} - {}", email, e.getMessage());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        issued.values().removeIf(entry -> entry.getExpiresAt().isBefore(now));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static Query byEmail(String email) {
+        return Query.query(Criteria.where("email").is(email));
+    }
+
+    public static final class Entry {
+        private final String email;
+        private final String otp;
+        private final String statusToken;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime expiresAt;
+        private final boolean verified;
+        private final int attemptCount;
+        private volatile OtpDeliveryStatus deliveryStatus;
+
+        private Entry(String email, String otp, String statusToken, LocalDateTime createdAt, LocalDateTime expiresAt,
+                boolean verified, int attemptCount, OtpDeliveryStatus deliveryStatus) {
+            this.email = email;
+            this.otp = otp;
+            this.statusToken = statusToken;
+            this.createdAt = createdAt;
+            this.expiresAt = expiresAt;
+            this.verified = verified;
+            this.attemptCount = attemptCount;
+            this.deliveryStatus = deliveryStatus;
+        }
+
+        private static Entry from(EmailOtp otp) {
+            return new Entry(otp.getEmail(), otp.getOtp(), otp.getStatusToken(), otp.getCreatedAt(),
+                    otp.getExpiresAt(), otp.isVerified(), otp.getAttemptCount(), otp.getDeliveryStatus());
+        }
+
+        private Update toUpdate() {
+            return new Update()
+                    .set("otp", otp)
+                    .set("statusToken", statusToken)
+                    .set("createdAt", createdAt)
+                    .set("expiresAt", expiresAt)
+                    .set("verified", verified)
+                    .set("attemptCount", attemptCount)
+                    .set("deliveryStatus", deliveryStatus);
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getOtp() {
+            return otp;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isVerified() {
+            return verified;
+        }
+
+        public int getAttemptCount() {
+            return attemptCount;
+        }
+
+        public OtpDeliveryStatus getDeliveryStatus() {
+            return deliveryStatus;
+        }
+
+        private boolean hasStatusToken(String candidate) {
+            return statusToken != null && candidate != null && MessageDigest.isEqual(
+                    statusToken.getBytes(StandardCharsets.UTF_8), candidate.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
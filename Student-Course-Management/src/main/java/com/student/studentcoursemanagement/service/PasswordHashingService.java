@@ -0,0 +1,124 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.exception.PasswordHashingBusyException;
+import com.student.studentcoursemanagement.model.User;
+import com.student.studentcoursemanagement.repo.UserRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs every BCrypt hash and verification on the bounded passwordHashExecutor instead of the
+ * request thread. When the lane is saturated callers get a PasswordHashingBusyException (503)
+ * right away rather than queueing behind other logins.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private ThreadPoolTaskExecutor passwordHashExecutor;
+
+    @Autowired
+    private UserRepo userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.password.hash.timeout.ms:5000}")
+    private long timeoutMillis;
+
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejections;
+    private Counter upgrades;
+
+    @PostConstruct
+    public void initMetrics() {
+        encodeTimer = Timer.builder("auth.password.hash").tag("op", "encode").register(meterRegistry);
+        matchesTimer = Timer.builder("auth.password.hash").tag("op", "matches").register(meterRegistry);
+        rejections = Counter.builder("auth.password.hash.rejected").register(meterRegistry);
+        upgrades = Counter.builder("auth.password.hash.upgrades").register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        return submit(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * After a successful login, rehash in the background if the stored hash uses an older cost factor.
+     * Best effort: skipped when the lane is busy, and only applied if the hash has not changed meanwhile.
+     */
+    public void upgradeIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (currentHash == null || !passwordEncoder.upgradeEncoding(currentHash)) {
+            return;
+        }
+        try {
+            passwordHashExecutor.execute(() -> {
+                String newHash = encodeTimer.record(() -> passwordEncoder.encode(rawPassword));
+                if (userRepository.replacePasswordHash(user.getId(), currentHash, newHash) > 0) {
+                    upgrades.increment();
+                    logger.debug("Upgraded password hash for user: {}", user.getId());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            logger.debug("Password hash upgrade skipped, hashing lane busy");
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = passwordHashExecutor.submit(task);
+        } catch (TaskRejectedException e) {
+            rejections.increment();
+            throw new PasswordHashingBusyException("Too many concurrent login requests, please retry shortly", e);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejections.increment();
+            throw new PasswordHashingBusyException("Password hashing timed out, please retry shortly", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.model.User;
+import com.student.studentcoursemanagement.model.UserRole;
+import com.student.studentcoursemanagement.repo.UserRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded, TTL-based cache of the user data the JWT filter needs to authorize a request
+ * (existence, email and roles), keyed by userId. Saves one MongoDB round trip per request.
+ * Entries must be invalidated whenever a user's roles change or the account is deleted.
+ */
+@Service
+public class PrincipalCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCacheService.class);
+
+    @Autowired
+    private UserRepo userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.principal.cache.ttl.seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${auth.principal.cache.max.entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, CachedPrincipal> cache = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a load that raced with it is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    public void initMetrics() {
+        hits = Counter.builder("auth.principal.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("auth.principal.cache.requests").tag("result", "miss").register(meterRegistry);
+        evictions = Counter.builder("auth.principal.cache.evictions").register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", cache, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Get the cached principal for a user, loading it from MongoDB on a miss.
+     * Unknown users are cached too (exists = false) so tokens of deleted accounts
+     * do not reach the database on every request.
+     */
+    public CachedPrincipal getPrincipal(String userId) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = cache.get(userId);
+        if (cached != null && cached.getExpiresAtMillis() > now) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        long generation = invalidations.get();
+        User user = userRepository.findById(userId).orElse(null);
+        CachedPrincipal loaded = toPrincipal(userId, user, now + ttlSeconds * 1000);
+
+        if (generation == invalidations.get()) {
+            if (cache.size() >= maxEntries) {
+                evict(now);
+            }
+            cache.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop the cached principal of a user (roles changed, profile updated or account deleted)
+     */
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        cache.remove(userId);
+        logger.debug("Principal cache invalidated for user: {}", userId);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.clear();
+    }
+
+    private void evict(long now) {
+        int removed = 0;
+        Iterator<CachedPrincipal> it = cache.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().getExpiresAtMillis() <= now) {
+                it.remove();
+                removed++;
+            }
+        }
+        // Still full of live entries: drop an arbitrary tenth to make room
+        if (cache.size() >= maxEntries) {
+            int toRemove = Math.max(1, maxEntries / 10);
+            it = cache.values().iterator();
+            while (it.hasNext() && toRemove-- > 0) {
+                it.next();
+                it.remove();
+                removed++;
+            }
+        }
+        evictions.increment(removed);
+    }
+
+    private CachedPrincipal toPrincipal(String userId, User user, long expiresAtMillis) {
+        if (user == null) {
+            return new CachedPrincipal(userId, null, Collections.emptySet(), Collections.emptyList(), false,
+                    expiresAtMillis);
+        }
+        Set<UserRole> roles = user.getRoles() != null ? Set.copyOf(user.getRoles()) : Collections.emptySet();
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
+                .collect(Collectors.toUnmodifiableList());
+        return new CachedPrincipal(userId, user.getEmail(), roles, authorities, true, expiresAtMillis);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedPrincipal {
+        private final String userId;
+        private final String email;
+        private final Set<UserRole> roles;
+        private final List<GrantedAuthority> authorities;
+        private final boolean exists;
+        private final long expiresAtMillis;
+    }
+}
@@ -0,0 +1,210 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.dto.ApiResponse;
+import com.student.studentcoursemanagement.dto.AuthResponse;
+import com.student.studentcoursemanagement.model.RefreshToken;
+import com.student.studentcoursemanagement.model.User;
+import com.student.studentcoursemanagement.model.UserRole;
+import com.student.studentcoursemanagement.repo.RefreshTokenRepo;
+import com.student.studentcoursemanagement.repo.UserRepo;
+import com.student.studentcoursemanagement.util.JwtUtil;
+import com.student.studentcoursemanagement.util.RefreshTokenGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rotating opaque refresh tokens.
+ * Every refresh consumes the presented token and issues a new one in the same family;
+ * presenting an already-rotated token revokes the whole family (reuse detection).
+ * The common refresh path is one in-memory lookup, one atomic update and one insert -
+ * no BCrypt and no user document read.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepo refreshTokenRepository;
+
+    @Autowired
+    private UserRepo userRepository;
+
+    @Autowired
+    private RefreshTokenGenerator refreshTokenGenerator;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.refresh.expiration.days:30}")
+    private long refreshExpirationDays;
+
+    @Value("${jwt.refresh.cache.max.entries:50000}")
+    private int maxCacheEntries;
+
+    // tokenHash -> token record, in front of the refresh_tokens collection
+    private final Map<String, RefreshToken> cache = new ConcurrentHashMap<>();
+
+    private Counter rotations;
+    private Counter reuseDetected;
+
+    @PostConstruct
+    public void initMetrics() {
+        rotations = Counter.builder("auth.refresh.rotations").register(meterRegistry);
+        reuseDetected = Counter.builder("auth.refresh.reuse.detected").register(meterRegistry);
+    }
+
+    /**
+     * Issue the first refresh token of a new family for a successful login
+     * @return the opaque refresh token for the client
+     */
+    public String issue(User user) {
+        return issue(UUID.randomUUID().toString(), user.getId(), user.getEmail(),
+                new HashSet<>(user.getRoles()), user.getTokenVersion());
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token
+     */
+    public ApiResponse<AuthResponse> rotate(String presentedToken) {
+        String tokenHash = refreshTokenGenerator.hash(presentedToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        RefreshToken record = cache.get(tokenHash);
+        if (record == null) {
+            record = refreshTokenRepository.findByTokenHash(tokenHash).orElse(null);
+            if (record != null) {
+                cache(record);
+            }
+        }
+
+        if (record == null || record.getExpiresAt().isBefore(now)) {
+            return unauthorized("Invalid or expired refresh token");
+        }
+
+        // A rotated token presented again: assume it leaked and kill the whole family
+        if (record.getUsedAt() != null || refreshTokenRepository.markUsed(tokenHash, now) == 0) {
+            reuseDetected.increment();
+            logger.warn("Refresh token reuse detected for user: {}, revoking family {}", record.getUserId(),
+                    record.getFamilyId());
+            revokeFamily(record.getFamilyId());
+            return unauthorized("Refresh token has already been used");
+        }
+        record.setUsedAt(now);
+
+        String userId = record.getUserId();
+        String email = record.getEmail();
+        Set<UserRole> roles = record.getRoles();
+        long tokenVersion = record.getTokenVersion();
+
+        // Roles changed since login (rare): pick up the current roles from the user
+        if (tokenRevocationService.isRevoked(userId, tokenVersion)) {
+            User user = userRepository.findById(userId).orElse(null);
+            if (user == null) {
+                revokeFamily(record.getFamilyId());
+                return unauthorized("User not found");
+            }
+            email = user.getEmail();
+            roles = new HashSet<>(user.getRoles());
+            tokenVersion = user.getTokenVersion();
+        }
+
+        String accessToken = jwtUtil.generateToken(userId, email, roles, tokenVersion);
+        String refreshToken = issue(record.getFamilyId(), userId, email, roles, tokenVersion);
+        rotations.increment();
+
+        AuthResponse authResponse = new AuthResponse(accessToken, refreshToken, null);
+        ApiResponse<AuthResponse> response = new ApiResponse<>(true, "Token refreshed successfully", authResponse);
+        response.setStatusCode(200);
+        return response;
+    }
+
+    /**
+     * Revoke the family of the presented token (logout)
+     */
+    public void revoke(String presentedToken) {
+        String tokenHash = refreshTokenGenerator.hash(presentedToken);
+        RefreshToken record = cache.get(tokenHash);
+        if (record == null) {
+            record = refreshTokenRepository.findByTokenHash(tokenHash).orElse(null);
+        }
+        if (record != null) {
+            revokeFamily(record.getFamilyId());
+        }
+    }
+
+    /**
+     * Revoke every refresh token of a user (account deleted)
+     */
+    public void revokeAllForUser(String userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+        cache.values().removeIf(token -> userId.equals(token.getUserId()));
+    }
+
+    private String issue(String familyId, String userId, String email, Set<UserRole> roles, long tokenVersion) {
+        String token = refreshTokenGenerator.generate();
+        LocalDateTime now = LocalDateTime.now();
+
+        RefreshToken record = RefreshToken.builder()
+                .tokenHash(refreshTokenGenerator.hash(token))
+                .familyId(familyId)
+                .userId(userId)
+                .email(email)
+                .roles(roles)
+                .tokenVersion(tokenVersion)
+                .createdAt(now)
+                .expiresAt(now.plusDays(refreshExpirationDays))
+                .build();
+
+        cache(refreshTokenRepository.save(record));
+        return token;
+    }
+
+    private void revokeFamily(String familyId) {
+        refreshTokenRepository.deleteByFamilyId(familyId);
+        cache.values().removeIf(token -> familyId.equals(token.getFamilyId()));
+    }
+
+    private void cache(RefreshToken record) {
+        if (cache.size() >= maxCacheEntries) {
+            LocalDateTime now = LocalDateTime.now();
+            cache.values().removeIf(token -> token.getExpiresAt().isBefore(now));
+        }
+        if (cache.size() >= maxCacheEntries) {
+            // Still full: drop arbitrary entries, they are reloaded from MongoDB on demand
+            Iterator<RefreshToken> it = cache.values().iterator();
+            int toRemove = Math.max(1, maxCacheEntries / 10);
+            while (it.hasNext() && toRemove-- > 0) {
+                it.next();
+                it.remove();
+            }
+        }
+        cache.put(record.getTokenHash(), record);
+    }
+
+    private ApiResponse<AuthResponse> unauthorized(String message) {
+        ApiResponse<AuthResponse> response = new ApiResponse<>(false, message, null);
+        response.setStatusCode(401);
+        return response;
+    }
+}
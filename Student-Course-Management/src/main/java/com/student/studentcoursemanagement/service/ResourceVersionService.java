@@ -0,0 +1,65 @@
+package com.student.studentcoursemanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters for the read-mostly resources served with an ETag (course listing, categories,
+ * the playlist of each course). Writers bump the counter after the change is saved; readers compare
+ * the client's If-None-Match against the current tag and answer 304 without loading anything.
+ * Tags carry a per-instance epoch, so a restart never re-issues an old tag for new content, and a
+ * revalidation window, so writes made on another instance to data read from MongoDB (playlists) are
+ * picked up within that window. Listings and categories come from CourseCatalog and CategoryCache,
+ * which bump their versions when a reload finds changes; their staleness is bounded by the reload
+ * interval instead.
+ */
+@Service
+public class ResourceVersionService {
+
+    public static final String COURSES = "courses";
+    public static final String CATEGORIES = "categories";
+
+    private static final String VIDEOS = "videos:";
+
+    // Upper bound on how long a playlist tag outlives a write made by another instance; 0 disables the window
+    @Value("${http.etag.window.seconds:60}")
+    private long windowSeconds;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Record a change to a resource, invalidating every tag issued for it so far
+     */
+    public void bump(String resource) {
+        versions.computeIfAbsent(resource, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Record a change to the videos of one course
+     */
+    public void bumpVideos(String courseId) {
+        bump(VIDEOS + courseId);
+    }
+
+    /**
+     * Current (weak) ETag of a resource
+     */
+    public String etag(String resource) {
+        AtomicLong version = versions.get(resource);
+        StringBuilder tag = new StringBuilder("W/\"").append(resource).append('-').append(epoch).append('-')
+                .append(version != null ? version.get() : 0);
+        if (windowSeconds > 0) {
+            tag.append('-').append(System.currentTimeMillis() / (windowSeconds * 1000));
+        }
+        return tag.append('"').toString();
+    }
+
+    public String videosEtag(String courseId) {
+        return etag(VIDEOS + courseId);
+    }
+}
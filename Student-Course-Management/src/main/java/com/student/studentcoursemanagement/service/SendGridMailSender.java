@@ -0,0 +1,67 @@
+package com.student.studentcoursemanagement.service;
+
+import com.sendgrid.Method;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.Mail;
+import com.student.studentcoursemanagement.model.EmailPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Posts mails through the shared SendGrid client, paced by SendPacer, and records the latency
+ * of every call as email.sendgrid.request, tagged by mail type and outcome.
+ */
+@Service
+public class SendGridMailSender {
+
+    @Autowired
+    private SendGrid sendGrid;
+
+    @Autowired
+    private SendPacer sendPacer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Send a mail to /v3/mail/send
+     * @param type mail type used as a metric tag, e.g. "otp"
+     * @param priority HIGH may use the share of the send rate held back for it
+     * @return the SendGrid response; callers decide how to treat non-2xx statuses
+     */
+    public Response send(Mail mail, String type, EmailPriority priority) throws IOException {
+        try {
+            sendPacer.acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to send");
+        }
+
+        Request request = new Request();
+        request.setMethod(Method.POST);
+        request.setEndpoint("mail/send");
+        request.setBody(mail.build());
+
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Response response = sendGrid.api(request);
+            sendPacer.onResponse(response.getStatusCode());
+            outcome = response.getStatusCode() / 100 + "xx";
+            return response;
+        } finally {
+            Timer.builder("email.sendgrid.request")
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, java.util.concurrent.TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.model.EmailPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces every SendGrid request through one token bucket shared by all email types.
+ * The rate adapts to the provider: it is halved when SendGrid answers 429 and grows back
+ * step by step while requests succeed (AIMD). Part of the bucket is held back for
+ * high-priority mail, so OTPs still go out immediately while announcements use up the rest.
+ */
+@Component
+public class SendPacer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SendPacer.class);
+    private static final long SECOND = 1_000_000_000L;
+
+    // The rate grows by this share of the maximum per second without a 429
+    private static final double INCREASE_RATIO = 0.1;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sendgrid.rate.per.second:10}")
+    private double maxRate;
+
+    @Value("${sendgrid.rate.min.per.second:1}")
+    private double minRate;
+
+    // Share of the bucket that only high-priority mail may take
+    @Value("${sendgrid.rate.high.reserve:0.2}")
+    private double highReserve;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long lastDecreaseNanos;
+    private long lastIncreaseNanos;
+
+    private Counter throttled;
+
+    @PostConstruct
+    public void init() {
+        long now = System.nanoTime();
+        rate = maxRate;
+        tokens = capacity();
+        lastRefillNanos = now;
+        lastDecreaseNanos = now - SECOND;
+        lastIncreaseNanos = now;
+
+        Gauge.builder("email.sendgrid.rate", this, SendPacer::currentRate).register(meterRegistry);
+        throttled = Counter.builder("email.sendgrid.throttled").register(meterRegistry);
+    }
+
+    /**
+     * Wait until a request of the given priority may be sent
+     */
+    public void acquire(EmailPriority priority) throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire(priority, System.nanoTime())) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Feed a SendGrid response status back into the rate
+     */
+    public void onResponse(int statusCode) {
+        onResponse(statusCode, System.nanoTime());
+    }
+
+    public synchronized double currentRate() {
+        return rate;
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise nanoseconds until one may be available
+     */
+    synchronized long tryAcquire(EmailPriority priority, long nowNanos) {
+        refill(nowNanos);
+        double floor = priority == EmailPriority.HIGH ? 0 : capacity() * highReserve;
+        if (tokens >= floor + 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((floor + 1 - tokens) * SECOND / rate));
+    }
+
+    synchronized void onResponse(int statusCode, long nowNanos) {
+        if (statusCode == 429) {
+            throttled.increment();
+            // Requests in flight when the limit was hit come back as 429 together; back off once for them
+            if (nowNanos - lastDecreaseNanos >= SECOND) {
+                refill(nowNanos);
+                rate = Math.max(minRate, rate / 2);
+                tokens = 0;
+                lastDecreaseNanos = nowNanos;
+                lastIncreaseNanos = nowNanos;
+                logger.warn("SendGrid throttled, send rate lowered to {}/s", rate);
+            }
+        } else if (statusCode >= 200 && statusCode < 300 && rate < maxRate
+                && nowNanos - lastIncreaseNanos >= SECOND) {
+            refill(nowNanos);
+            rate = Math.min(maxRate, rate + maxRate * INCREASE_RATIO);
+            lastIncreaseNanos = nowNanos;
+        }
+    }
+
+    private double capacity() {
+        // One second of sends
+        return Math.max(1, rate);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity(), tokens + elapsed * rate / SECOND);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
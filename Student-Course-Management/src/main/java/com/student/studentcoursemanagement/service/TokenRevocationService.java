@@ -0,0 +1,153 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.model.RevokedUser;
+import com.student.studentcoursemanagement.model.User;
+import com.student.studentcoursemanagement.repo.RevokedUserRepo;
+import com.student.studentcoursemanagement.repo.UserRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact in-memory record of revoked token versions, keyed by userId.
+ * A token is revoked when its "ver" claim is below the minimum valid version recorded for its user.
+ * Entries only matter until every token issued before the revocation has expired. That includes
+ * refresh tokens, which carry the version they were issued with and are only re-checked against the
+ * user when their version is revoked here, so entries are kept for the longer of jwt.expiration
+ * and jwt.refresh.expiration.days.
+ * The durable state lives in MongoDB: bumped tokenVersion fields on users, and revoked_users
+ * tombstones for deleted accounts. Both are loaded at startup and re-read periodically, so
+ * revocations made on another instance are picked up within token.revocation.sync.interval.ms.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Overlap between consecutive syncs, covering clock skew between instances and slow writes
+    private static final long SYNC_OVERLAP_SECONDS = 30;
+
+    @Autowired
+    private UserRepo userRepository;
+
+    @Autowired
+    private RevokedUserRepo revokedUserRepository;
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    @Value("${jwt.refresh.expiration.days:30}")
+    private long refreshExpirationDays;
+
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSync;
+
+    /**
+     * Rebuild the map after a restart from users whose version was bumped, and accounts deleted,
+     * recently enough that tokens issued before may still be unexpired
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecentRevocations() {
+        sync(LocalDateTime.now().minusNanos(retentionMillis() * 1_000_000));
+    }
+
+    /**
+     * Pick up revocations written since the previous sync, e.g. by another instance
+     */
+    @Scheduled(fixedDelayString = "${token.revocation.sync.interval.ms:30000}",
+            initialDelayString = "${token.revocation.sync.interval.ms:30000}")
+    public void syncRevocations() {
+        LocalDateTime since = lastSync != null
+                ? lastSync.minusSeconds(SYNC_OVERLAP_SECONDS)
+                : LocalDateTime.now().minusNanos(retentionMillis() * 1_000_000);
+        sync(since);
+    }
+
+    private void sync(LocalDateTime since) {
+        LocalDateTime started = LocalDateTime.now();
+        try {
+            List<User> users = userRepository.findTokenVersionsUpdatedAfter(since);
+            List<RevokedUser> deleted = revokedUserRepository.findByRevokedAtAfter(since);
+            long now = System.currentTimeMillis();
+            for (User user : users) {
+                revocations.merge(user.getId(), new Revocation(user.getTokenVersion(), now), Revocation::stricter);
+            }
+            for (RevokedUser user : deleted) {
+                revocations.put(user.getId(), new Revocation(Long.MAX_VALUE, now));
+            }
+            lastSync = started;
+            logger.debug("Synced {} token revocations and {} deleted accounts", users.size(), deleted.size());
+        } catch (Exception e) {
+            // Retried from the same point on the next sync
+            logger.error("Failed to load token revocations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Revoke every token of the user whose version is lower than newVersion
+     */
+    public void revokeBefore(String userId, long newVersion) {
+        long now = System.currentTimeMillis();
+        revocations.merge(userId, new Revocation(newVersion, now), Revocation::stricter);
+        prune(now);
+    }
+
+    /**
+     * Revoke every token of the user (account deleted). The tombstone is persisted first, so the
+     * revocation also holds on other instances and after a restart.
+     */
+    public void revokeAll(String userId) {
+        LocalDateTime revokedAt = LocalDateTime.now();
+        revokedUserRepository.save(RevokedUser.builder()
+                .id(userId)
+                .revokedAt(revokedAt)
+                .expiresAt(revokedAt.plusNanos(expiration * 1_000_000))
+                .build());
+
+        long now = System.currentTimeMillis();
+        revocations.put(userId, new Revocation(Long.MAX_VALUE, now));
+        prune(now);
+    }
+
+    public boolean isRevoked(String userId, long tokenVersion) {
+        Revocation revocation = revocations.get(userId);
+        return revocation != null && tokenVersion < revocation.minValidVersion;
+    }
+
+    private void prune(long now) {
+        long retention = retentionMillis();
+        revocations.values().removeIf(r -> now - r.revokedAtMillis > retention);
+    }
+
+    /**
+     * How long a revocation must be remembered: until access and refresh tokens issued before it have expired
+     */
+    private long retentionMillis() {
+        return Math.max(expiration, refreshExpirationDays * 24 * 60 * 60 * 1000);
+    }
+
+    private static final class Revocation {
+        private final long minValidVersion;
+        private final long revokedAtMillis;
+
+        private Revocation(long minValidVersion, long revokedAtMillis) {
+            this.minValidVersion = minValidVersion;
+            this.revokedAtMillis = revokedAtMillis;
+        }
+
+        private static Revocation stricter(Revocation existing, Revocation added) {
+            return existing.minValidVersion >= added.minValidVersion ? existing : added;
+        }
+    }
+}
@@ -3,13 +3,13 @@ package com.student.studentcoursemanagement.service;
 import com.student.studentcoursemanagement.dto.ApiResponse;
 import com.student.studentcoursemanagement.dto.UpdateUserProfileRequest;
 import com.student.studentcoursemanagement.dto.UserProfileResponse;
+import com.student.studentcoursemanagement.exception.PasswordHashingBusyException;
 import com.student.studentcoursemanagement.model.User;
 import com.student.studentcoursemanagement.model.UserRole;
 import com.student.studentcoursemanagement.repo.UserRepo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
@@ -21,7 +21,16 @@ public class UserService {
     private UserRepo userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private PrincipalCacheService principalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
@@ -120,17 +129,30 @@ public class UserService {
         }
 
         // Update password if both current and new passwords are provided
+        boolean passwordChanged = false;
         if (request.getCurrentPassword() != null && request.getNewPassword() != null) {
-            // Verify current password
-            if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
-                return new ApiResponse<>(false, "Current password is incorrect", null, 400);
+            try {
+                // Verify current password
+                if (!passwordHashingService.matches(request.getCurrentPassword(), user.getPassword())) {
+                    return new ApiResponse<>(false, "Current password is incorrect", null, 400);
+                }
+                // Update to new password
+                user.setPassword(passwordHashingService.encode(request.getNewPassword()));
+                // Tokens issued before the change must stop working
+                user.setTokenVersion(user.getTokenVersion() + 1);
+                passwordChanged = true;
+            } catch (PasswordHashingBusyException e) {
+                return new ApiResponse<>(false, e.getMessage(), null, 503);
             }
-            // Update to new password
-            user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         }
 
         user.setUpdatedAt(LocalDateTime.now());
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getId());
+        if (passwordChanged) {
+            tokenRevocationService.revokeBefore(updatedUser.getId(), updatedUser.getTokenVersion());
+            refreshTokenService.revokeAllForUser(updatedUser.getId());
+        }
 
         UserProfileResponse profileResponse = buildProfileResponse(updatedUser);
 
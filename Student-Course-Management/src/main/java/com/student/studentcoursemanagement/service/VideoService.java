@@ -39,6 +39,12 @@ public class VideoService {
     @Autowired
     private CourseRepo courseRepository;
 
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
     @Autowired
     private EnrollmentService enrollmentService;
 
@@ -107,7 +113,8 @@ public class VideoService {
             }
             videoIds.add(savedVideo.getId());
             existingCourse.setVideoIds(videoIds);
-            courseRepository.save(existingCourse);
+            courseCatalog.put(courseRepository.save(existingCourse));
+            resourceVersions.bumpVideos(savedVideo.getCourseId());
 
             ApiResponse<VideoResponseDTO> response = new ApiResponse<>(
                     true,
@@ -198,6 +205,7 @@ public class VideoService {
             }
 
             Video existingVideo = videoOpt.get();
+            String originalCourseId = existingVideo.getCourseId();
 
             // Validate input
             validateVideoRequest(request);
@@ -234,6 +242,11 @@ public class VideoService {
             }
 
             Video updatedVideo = videoRepository.save(existingVideo);
+            resourceVersions.bumpVideos(updatedVideo.getCourseId());
+            if (!updatedVideo.getCourseId().equals(originalCourseId)) {
+                // Moved: the old course's listing changed too
+                resourceVersions.bumpVideos(originalCourseId);
+            }
             VideoResponseDTO responseDTO = convertToResponseDTO(updatedVideo);
 
             logger.info("Video updated successfully: {}", updatedVideo.getTitle());
@@ -261,6 +274,7 @@ public class VideoService {
             Video video = videoOpt.get();
 
             videoRepository.deleteById(id);
+            resourceVersions.bumpVideos(video.getCourseId());
 
             userVideoCompletionService.deleteCompletionsByVideoIdIfExists(id);
 
@@ -407,6 +421,7 @@ public class VideoService {
             updateVideoPositionInternal(video, position);
             video.setUpdatedAt(LocalDateTime.now());
             video = videoRepository.save(video);
+            resourceVersions.bumpVideos(video.getCourseId());
             return new ApiResponse<>(true, "Video position updated", convertToResponseDTO(video), 200);
         } catch (Exception e) {
             logger.error("Error updating video position {}: {}", videoId, e.getMessage());
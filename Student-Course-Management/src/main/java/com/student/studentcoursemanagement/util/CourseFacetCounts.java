@@ -0,0 +1,135 @@
+package com.student.studentcoursemanagement.util;
+
+import com.student.studentcoursemanagement.dto.CourseFacetsDTO;
+import com.student.studentcoursemanagement.dto.CourseResponseDTO;
+import com.student.studentcoursemanagement.model.CourseType;
+import com.student.studentcoursemanagement.model.DifficultyLevel;
+import com.student.studentcoursemanagement.model.Language;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Immutable course counts over category x difficulty x language x course type. Only non-empty
+ * cells are stored, so a facet query costs one pass over at most a few hundred cells whatever
+ * the size of the catalog. with/without return a copy adjusted by one course.
+ */
+public final class CourseFacetCounts {
+
+    private final Map<Cell, Integer> cells;
+
+    private CourseFacetCounts(Map<Cell, Integer> cells) {
+        this.cells = cells;
+    }
+
+    public static CourseFacetCounts of(Iterable<CourseResponseDTO> courses) {
+        Map<Cell, Integer> cells = new HashMap<>();
+        for (CourseResponseDTO course : courses) {
+            cells.merge(Cell.of(course), 1, Integer::sum);
+        }
+        return new CourseFacetCounts(cells);
+    }
+
+    /**
+     * Counts after a course was added, or replaced (previous is its old version, or null if new)
+     */
+    public CourseFacetCounts with(CourseResponseDTO previous, CourseResponseDTO course) {
+        Map<Cell, Integer> next = new HashMap<>(cells);
+        if (previous != null) {
+            decrement(next, Cell.of(previous));
+        }
+        next.merge(Cell.of(course), 1, Integer::sum);
+        return new CourseFacetCounts(next);
+    }
+
+    /**
+     * Counts after a course was removed
+     */
+    public CourseFacetCounts without(CourseResponseDTO course) {
+        Map<Cell, Integer> next = new HashMap<>(cells);
+        decrement(next, Cell.of(course));
+        return new CourseFacetCounts(next);
+    }
+
+    /**
+     * Facet counts under the given filters (null means any value)
+     */
+    public CourseFacetsDTO count(String categoryId, DifficultyLevel difficulty, Language language,
+            CourseType courseType) {
+        Map<String, Integer> categories = new TreeMap<>();
+        Map<DifficultyLevel, Integer> difficulties = new EnumMap<>(DifficultyLevel.class);
+        Map<Language, Integer> languages = new EnumMap<>(Language.class);
+        Map<CourseType, Integer> courseTypes = new EnumMap<>(CourseType.class);
+
+        for (Map.Entry<Cell, Integer> entry : cells.entrySet()) {
+            Cell cell = entry.getKey();
+            int count = entry.getValue();
+            boolean categoryOk = categoryId == null || categoryId.equals(cell.categoryId);
+            boolean difficultyOk = difficulty == null || difficulty == cell.difficulty;
+            boolean languageOk = language == null || language == cell.language;
+            boolean courseTypeOk = courseType == null || courseType == cell.courseType;
+
+            // A cell counts towards a dimension when it passes every filter but that dimension's own
+            if (cell.categoryId != null && difficultyOk && languageOk && courseTypeOk) {
+                categories.merge(cell.categoryId, count, Integer::sum);
+            }
+            if (cell.difficulty != null && categoryOk && languageOk && courseTypeOk) {
+                difficulties.merge(cell.difficulty, count, Integer::sum);
+            }
+            if (cell.language != null && categoryOk && difficultyOk && courseTypeOk) {
+                languages.merge(cell.language, count, Integer::sum);
+            }
+            if (cell.courseType != null && categoryOk && difficultyOk && languageOk) {
+                courseTypes.merge(cell.courseType, count, Integer::sum);
+            }
+        }
+
+        return CourseFacetsDTO.builder()
+                .categories(categories)
+                .difficulties(difficulties)
+                .languages(languages)
+                .courseTypes(courseTypes)
+                .build();
+    }
+
+    private static void decrement(Map<Cell, Integer> cells, Cell cell) {
+        cells.computeIfPresent(cell, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static final class Cell {
+        private final String categoryId;
+        private final DifficultyLevel difficulty;
+        private final Language language;
+        private final CourseType courseType;
+
+        private Cell(String categoryId, DifficultyLevel difficulty, Language language, CourseType courseType) {
+            this.categoryId = categoryId;
+            this.difficulty = difficulty;
+            this.language = language;
+            this.courseType = courseType;
+        }
+
+        private static Cell of(CourseResponseDTO course) {
+            return new Cell(course.getCategoryId(), course.getDifficulty(), course.getLanguage(),
+                    course.getCourseType());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Cell)) {
+                return false;
+            }
+            Cell other = (Cell) o;
+            return Objects.equals(categoryId, other.categoryId) && difficulty == other.difficulty
+                    && language == other.language && courseType == other.courseType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(categoryId, difficulty, language, courseType);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.student.studentcoursemanagement.util;
+
+import com.student.studentcoursemanagement.dto.CourseResponseDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable inverted index over course title, description, trainer name and field of work.
+ * Every query token must match a term of the course exactly, as a prefix, or within a small
+ * edit distance (1 for tokens of 4+ characters, 2 for 8+). Scores weight the field the term
+ * came from (title highest), the kind of match and how rare the term is.
+ * with/without return a new index sharing the untouched posting lists with this one.
+ */
+public final class CourseSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float TRAINER_WEIGHT = 2f;
+    private static final float FIELD_OF_WORK_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float EXACT = 1f;
+    private static final float PREFIX = 0.6f;
+    private static final float FUZZY = 0.4f;
+
+    private static final CourseSearchIndex EMPTY = new CourseSearchIndex(new TreeMap<>(), new HashMap<>());
+
+    // term -> course id -> field weight of the term in that course; inner maps are never mutated
+    private final NavigableMap<String, Map<String, Float>> postings;
+
+    // course id -> its terms, to unindex it
+    private final Map<String, Map<String, Float>> documents;
+
+    private CourseSearchIndex(NavigableMap<String, Map<String, Float>> postings,
+            Map<String, Map<String, Float>> documents) {
+        this.postings = postings;
+        this.documents = documents;
+    }
+
+    public static CourseSearchIndex empty() {
+        return EMPTY;
+    }
+
+    public static CourseSearchIndex of(Iterable<CourseResponseDTO> courses) {
+        Map<String, Map<String, Float>> building = new HashMap<>();
+        Map<String, Map<String, Float>> documents = new HashMap<>();
+        for (CourseResponseDTO course : courses) {
+            Map<String, Float> terms = terms(course);
+            documents.put(course.getId(), terms);
+            terms.forEach((term, weight) -> building.computeIfAbsent(term, t -> new HashMap<>())
+                    .put(course.getId(), weight));
+        }
+        NavigableMap<String, Map<String, Float>> postings = new TreeMap<>();
+        building.forEach((term, docs) -> postings.put(term, Collections.unmodifiableMap(docs)));
+        return new CourseSearchIndex(postings, documents);
+    }
+
+    /**
+     * This index with the course added or replaced
+     */
+    public CourseSearchIndex with(CourseResponseDTO course) {
+        CourseSearchIndex index = copyWithout(course.getId());
+        Map<String, Float> terms = terms(course);
+        index.documents.put(course.getId(), terms);
+        terms.forEach((term, weight) -> {
+            Map<String, Float> docs = new HashMap<>(index.postings.getOrDefault(term, Map.of()));
+            docs.put(course.getId(), weight);
+            index.postings.put(term, Collections.unmodifiableMap(docs));
+        });
+        return index;
+    }
+
+    /**
+     * This index with the course removed
+     */
+    public CourseSearchIndex without(String courseId) {
+        return documents.containsKey(courseId) ? copyWithout(courseId) : this;
+    }
+
+    private CourseSearchIndex copyWithout(String courseId) {
+        CourseSearchIndex index = new CourseSearchIndex(new TreeMap<>(postings), new HashMap<>(documents));
+        Map<String, Float> terms = index.documents.remove(courseId);
+        if (terms != null) {
+            for (String term : terms.keySet()) {
+                Map<String, Float> docs = new HashMap<>(index.postings.get(term));
+                docs.remove(courseId);
+                if (docs.isEmpty()) {
+                    index.postings.remove(term);
+                } else {
+                    index.postings.put(term, Collections.unmodifiableMap(docs));
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Score every course matching all tokens of the query
+     * @return course id -> score; empty if the query has no tokens or nothing matches
+     */
+    public Map<String, Float> search(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Float> scores = null;
+        for (String token : tokens) {
+            Map<String, Float> tokenScores = scoreToken(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                // Every token must match
+                Map<String, Float> matched = new HashMap<>();
+                for (Map.Entry<String, Float> entry : scores.entrySet()) {
+                    Float score = tokenScores.get(entry.getKey());
+                    if (score != null) {
+                        matched.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = matched;
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private Map<String, Float> scoreToken(String token) {
+        Map<String, Float> scores = new HashMap<>();
+
+        Map<String, Float> exact = postings.get(token);
+        if (exact != null) {
+            addScores(scores, exact, EXACT);
+        }
+
+        // Terms starting with the token (typing "spr" finds "spring")
+        for (Map.Entry<String, Map<String, Float>> entry
+                : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+            addScores(scores, entry.getValue(), PREFIX);
+        }
+
+        int maxDistance = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (maxDistance > 0) {
+            for (Map.Entry<String, Map<String, Float>> entry : postings.entrySet()) {
+                String term = entry.getKey();
+                if (Math.abs(term.length() - token.length()) <= maxDistance && !term.equals(token)
+                        && withinDistance(token, term, maxDistance)) {
+                    addScores(scores, entry.getValue(), FUZZY);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void addScores(Map<String, Float> scores, Map<String, Float> docs, float matchWeight) {
+        // Rare terms count more
+        float idf = (float) Math.log(1 + (double) Math.max(1, documents.size()) / docs.size());
+        for (Map.Entry<String, Float> doc : docs.entrySet()) {
+            float score = doc.getValue() * matchWeight * idf;
+            // A course counts once per token, with its best matching term
+            scores.merge(doc.getKey(), score, Math::max);
+        }
+    }
+
+    private static Map<String, Float> terms(CourseResponseDTO course) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, course.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, course.getTrainerName(), TRAINER_WEIGHT);
+        addTerms(terms, course.getFieldOfWork(), FIELD_OF_WORK_WEIGHT);
+        addTerms(terms, course.getDescription(), DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    /**
+     * Lowercase letter/digit runs with accents stripped
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions) <= max
+     */
+    static boolean withinDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int[] prev2 = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] curr = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            curr[0] = i;
+            int rowMin = curr[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prev2[j - 2] + 1);
+                }
+                curr[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = prev2;
+            prev2 = prev;
+            prev = curr;
+            curr = recycled;
+        }
+        return prev[m] <= max;
+    }
+}
@@ -0,0 +1,140 @@
+package com.student.studentcoursemanagement.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email body template parsed once into literal and variable segments.
+ * {{name}} inserts a variable, HTML-escaped in HTML templates; {{{name}}} inserts it as is
+ * (for fragments rendered from another template). Missing or null variables render empty.
+ * Rendering appends to a per-thread buffer that is reused across calls.
+ */
+public final class EmailTemplate {
+
+    // Buffers grown past this are not kept, so one large render does not pin memory in every thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final boolean html;
+
+    // Segment i is a literal when variables[i] is null, otherwise a variable
+    private final String[] literals;
+    private final String[] variables;
+    private final boolean[] raw;
+    private final int literalLength;
+
+    private EmailTemplate(boolean html, List<String> literals, List<String> variables, List<Boolean> raw) {
+        this.html = html;
+        this.literals = literals.toArray(new String[0]);
+        this.variables = variables.toArray(new String[0]);
+        this.raw = new boolean[raw.size()];
+        int length = 0;
+        for (int i = 0; i < this.raw.length; i++) {
+            this.raw[i] = raw.get(i);
+            if (this.literals[i] != null) {
+                length += this.literals[i].length();
+            }
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse a template
+     * @throws IllegalArgumentException on an unclosed or empty placeholder
+     */
+    public static EmailTemplate compile(String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                break;
+            }
+            boolean triple = source.startsWith("{{{", open);
+            String close = triple ? "}}}" : "}}";
+            int nameStart = open + (triple ? 3 : 2);
+            int end = source.indexOf(close, nameStart);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(nameStart, end).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder at offset " + open);
+            }
+
+            if (open > pos) {
+                literals.add(source.substring(pos, open));
+                variables.add(null);
+                raw.add(false);
+            }
+            literals.add(null);
+            variables.add(name);
+            raw.add(triple);
+            pos = end + close.length();
+        }
+        if (pos < source.length()) {
+            literals.add(source.substring(pos));
+            variables.add(null);
+            raw.add(false);
+        }
+        return new EmailTemplate(html, literals, variables, raw);
+    }
+
+    public boolean isHtml() {
+        return html;
+    }
+
+    public String getContentType() {
+        return html ? "text/html" : "text/plain";
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        renderTo(out, values);
+        String rendered = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    public void renderTo(StringBuilder out, Map<String, ?> values) {
+        out.ensureCapacity(out.length() + literalLength + 16 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i] == null) {
+                out.append(literals[i]);
+                continue;
+            }
+            Object value = values.get(variables[i]);
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (html && !raw[i]) {
+                escapeHtml(out, text);
+            } else {
+                out.append(text);
+            }
+        }
+    }
+
+    private static void escapeHtml(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -1,25 +1,47 @@
 package com.student.studentcoursemanagement.util;
 
 
+import com.student.studentcoursemanagement.model.User;
+import com.student.studentcoursemanagement.model.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    // Built once at startup - both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     /**
      * Generate JWT token for user
      * @param userId the user ID
@@ -28,11 +50,30 @@ public class JwtUtil {
      */
     public String generateToken(String userId, String email) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
+        claims.put(CLAIM_USER_ID, userId);
         claims.put("email", email);
         return createToken(claims, email);
     }
 
+    /**
+     * Generate JWT token carrying the user's roles and token version, so requests
+     * can be authorized from the token alone without loading the user
+     * @param user the authenticated user
+     * @return JWT token string
+     */
+    public String generateToken(User user) {
+        return generateToken(user.getId(), user.getEmail(), user.getRoles(), user.getTokenVersion());
+    }
+
+    public String generateToken(String userId, String email, Collection<UserRole> roles, long tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put("email", email);
+        claims.put(CLAIM_ROLES, roles.stream().map(UserRole::name).collect(Collectors.toList()));
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
+        return createToken(claims, email);
+    }
+
     /**
      * Create JWT token with claims
      * @param claims the claims to include in token
@@ -48,13 +89,45 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verify the signature and expiry of a token exactly once and return its claims.
+     * Callers should read everything they need from the returned claims instead of
+     * calling the individual extract methods, each of which re-verifies the token.
+     * @param token the JWT token string
+     * @return the verified claims, or null if the token is invalid or expired
+     */
+    public Claims parseVerifiedClaims(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    /**
+     * Roles embedded in a verified token, or null for tokens issued before roles were embedded
+     */
+    public List<UserRole> getRoles(Claims claims) {
+        List<?> names = claims.get(CLAIM_ROLES, List.class);
+        if (names == null) {
+            return null;
+        }
+        return names.stream()
+                .map(name -> UserRole.valueOf(String.valueOf(name)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Token version embedded in a verified token, or null for tokens issued before versions were embedded
+     */
+    public Long getTokenVersion(Claims claims) {
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return version != null ? version.longValue() : null;
     }
 
 
@@ -64,7 +137,7 @@ public class JwtUtil {
 
 
     public String extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", String.class));
+        return extractClaim(token, claims -> claims.get(CLAIM_USER_ID, String.class));
     }
 
 
@@ -81,11 +154,7 @@ public class JwtUtil {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
             throw new RuntimeException("Invalid JWT token", e);
         }
@@ -102,21 +171,12 @@ public class JwtUtil {
 
 
     public Boolean validateToken(String token, String email) {
-        try {
-            final String tokenEmail = extractEmail(token);
-            return (tokenEmail.equals(email) && !isTokenExpired(token));
-        } catch (Exception e) {
-            return false;
-        }
+        Claims claims = parseVerifiedClaims(token);
+        return claims != null && claims.getSubject() != null && claims.getSubject().equals(email);
     }
 
 
     public Boolean validateToken(String token) {
-        try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return parseVerifiedClaims(token) != null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.student.studentcoursemanagement.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * In-process rate limiter holding one token bucket per key (e.g. "login:ip:1.2.3.4").
+ * Buckets are spread over lock stripes so unrelated keys do not contend on one lock.
+ */
+@Component
+public class RateLimiter {
+
+    private static final int STRIPES = 64;
+
+    // Idle (full) buckets are pruned from a stripe once it holds this many
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public RateLimiter() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Take one token from the bucket of key, allowing perMinute requests per minute
+     * @return 0 if admitted, otherwise seconds to wait before retrying
+     */
+    public long tryAcquire(String key, int perMinute) {
+        return tryAcquire(key, perMinute, System.nanoTime());
+    }
+
+    long tryAcquire(String key, int perMinute, long nowNanos) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        long waitNanos;
+        synchronized (stripe) {
+            TokenBucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= PRUNE_THRESHOLD) {
+                    stripe.prune(nowNanos);
+                }
+                bucket = new TokenBucket(perMinute, perMinute / 60d, nowNanos);
+                stripe.buckets.put(key, bucket);
+            }
+            waitNanos = bucket.tryConsume(nowNanos);
+        }
+        return waitNanos == 0 ? 0 : Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+    }
+
+    private static final class Stripe {
+        private final Map<String, TokenBucket> buckets = new HashMap<>();
+
+        private void prune(long nowNanos) {
+            Iterator<TokenBucket> it = buckets.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isFull(nowNanos)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+}
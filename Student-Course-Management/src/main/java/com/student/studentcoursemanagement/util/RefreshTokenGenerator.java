@@ -0,0 +1,44 @@
+package com.student.studentcoursemanagement.util;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+@Component
+public class RefreshTokenGenerator {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Generate a new opaque refresh token (256 random bits, base64url encoded).
+     * Only its hash is ever stored.
+     * @return refresh token string handed to the client
+     */
+    public String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Hash a refresh token for storage and lookup.
+     * A fast SHA-256 is enough here (no BCrypt) because the token is high-entropy random data.
+     * @param token the refresh token string
+     * @return base64url encoded SHA-256 digest
+     */
+    public String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
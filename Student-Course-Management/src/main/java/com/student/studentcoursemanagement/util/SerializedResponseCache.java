@@ -0,0 +1,199 @@
+package com.student.studentcoursemanagement.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.studentcoursemanagement.dto.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized bodies of the hot read endpoints (course listing, categories, course playlists),
+ * kept as JSON bytes in identity and gzip encoding and written out as they are.
+ * An entry is keyed by request path and query and remembers the ETag it was built for, so a write
+ * (which changes the ETag, see ResourceVersionService) invalidates it; the next request re-serializes.
+ * The ApiResponse timestamp of a cached body is the time it was built.
+ */
+@Component
+public class SerializedResponseCache {
+
+    // Bodies smaller than this are not worth compressing
+    private static final int MIN_GZIP_BYTES = 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${http.response.cache.max.entries:256}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        hits = Counter.builder("http.response.cache").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("http.response.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Answer a GET for a versioned resource: 304 if the client holds the current ETag, else the cached
+     * bytes for this URL, loading and serializing the response first on a miss. Responses other than
+     * 200 are passed through uncached.
+     */
+    public ResponseEntity<?> serve(WebRequest webRequest, String etag, CacheControl cacheControl,
+            Supplier<? extends ApiResponse<?>> loader) {
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        HttpServletRequest request = ((ServletWebRequest) webRequest).getRequest();
+        String key = request.getQueryString() != null
+                ? request.getRequestURI() + "?" + request.getQueryString()
+                : request.getRequestURI();
+
+        Entry entry = get(key, etag);
+        if (entry == null) {
+            ApiResponse<?> response = loader.get();
+            int statusCode = response.getStatusCode() > 0 ? response.getStatusCode() : 200;
+            if (statusCode != 200) {
+                return ResponseEntity.status(statusCode).body(response);
+            }
+            entry = put(key, etag, response);
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = entry.gzip != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] body = gzip ? entry.gzip : entry.identity;
+        return builder.contentLength(body.length).body(body);
+    }
+
+    Entry get(String key, String etag) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            return entry != null && entry.etag.equals(etag) ? entry : null;
+        }
+    }
+
+    Entry put(String key, String etag, Object response) {
+        Entry entry = encode(objectMapper, etag, response);
+        synchronized (entries) {
+            entries.put(key, entry);
+            if (entries.size() > maxEntries) {
+                // Least recently used first
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed as gzip or x-gzip, or covered by *,
+     * with a q-value above 0. A coding listed explicitly takes precedence over *.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && param.substring(0, 2).equalsIgnoreCase("q=")) {
+                    q = parseQuality(param.substring(2).trim());
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = Math.max(any, q);
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    private static double parseQuality(String value) {
+        try {
+            double q = Double.parseDouble(value);
+            return q >= 0 && q <= 1 ? q : 0;
+        } catch (NumberFormatException e) {
+            // A malformed weight does not make a coding acceptable
+            return 0;
+        }
+    }
+
+    static Entry encode(ObjectMapper objectMapper, String etag, Object response) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(response);
+            byte[] gzip = null;
+            if (identity.length >= MIN_GZIP_BYTES) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 4);
+                try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+                    zip.write(identity);
+                }
+                gzip = out.toByteArray();
+            }
+            return new Entry(etag, identity, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static final class Entry {
+        private final String etag;
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        private Entry(String etag, byte[] identity, byte[] gzip) {
+            this.etag = etag;
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        byte[] identity() {
+            return identity;
+        }
+
+        byte[] gzip() {
+            return gzip;
+        }
+    }
+}
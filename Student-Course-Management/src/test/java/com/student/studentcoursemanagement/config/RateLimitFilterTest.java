@@ -0,0 +1,135 @@
+package com.student.studentcoursemanagement.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.studentcoursemanagement.util.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "rateLimiter", new RateLimiter());
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "loginPerIp", 20);
+        ReflectionTestUtils.setField(filter, "loginPerEmail", 5);
+        ReflectionTestUtils.setField(filter, "otpPerIp", 10);
+        ReflectionTestUtils.setField(filter, "otpPerEmail", 2);
+        ReflectionTestUtils.setField(filter, "forgotPerIp", 5);
+        ReflectionTestUtils.setField(filter, "forgotPerEmail", 2);
+        filter.initRoutes();
+    }
+
+    @Test
+    void testOtpSend_RejectedPerEmailAcrossIps() throws Exception {
+        // Given - two requests admitted, each from a different IP
+        assertEquals(200, send("/api/otp/send", "10.0.0.1", "Learner@Example.com").getStatus());
+        assertEquals(200, send("/api/otp/send", "10.0.0.2", "learner@example.com").getStatus());
+
+        // When
+        MockHttpServletResponse response = send("/api/otp/resend", "10.0.0.3", "learner@example.com");
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertEquals(2.0, meterRegistry.get("rate.limit.requests").tag("route", "otp").tag("result", "admitted")
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get("rate.limit.requests").tag("route", "otp").tag("result", "rejected")
+                .counter().count());
+    }
+
+    @Test
+    void testBodyStillReadableDownstream() throws Exception {
+        MockHttpServletRequest request = request("/api/auth/login", "10.0.0.1", "learner@example.com");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("learner@example.com"));
+    }
+
+    @Test
+    void testBodyWithoutContentLength_StillLimitedPerEmail() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(chunked(request("/api/otp/send", "10.0.0." + i, "learner@example.com")), response,
+                    new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(chunked(request("/api/otp/send", "10.0.0.9", "learner@example.com")), response,
+                new MockFilterChain());
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    void testOversizedBody_Rejected() throws Exception {
+        MockHttpServletRequest request = chunked(request("/api/auth/login", "10.0.0.1",
+                "learner@example.com\",\"padding\":\"" + "x".repeat(10000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testUnthrottledRoute_PassesThrough() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send("/api/courses", "10.0.0.1", "learner@example.com").getStatus());
+        }
+    }
+
+    private MockHttpServletResponse send(String uri, String ip, String email) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(uri, ip, email), response, new MockFilterChain());
+        return response;
+    }
+
+    // Transfer-Encoding: chunked, no declared length
+    private MockHttpServletRequest chunked(MockHttpServletRequest request) {
+        MockHttpServletRequest chunked = new MockHttpServletRequest(request.getMethod(), request.getRequestURI()) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        chunked.setRemoteAddr(request.getRemoteAddr());
+        chunked.setContentType(request.getContentType());
+        chunked.setContent(request.getContentAsByteArray());
+        return chunked;
+    }
+
+    private MockHttpServletRequest request(String uri, String ip, String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
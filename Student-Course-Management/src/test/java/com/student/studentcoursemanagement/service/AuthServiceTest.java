@@ -0,0 +1,97 @@
+package com.student.studentcoursemanagement.service;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.student.studentcoursemanagement.dto.ApiResponse;
+import com.student.studentcoursemanagement.dto.AuthResponse;
+import com.student.studentcoursemanagement.dto.GoogleAuthRequest;
+import com.student.studentcoursemanagement.dto.ResetPasswordRequest;
+import com.student.studentcoursemanagement.model.User;
+import com.student.studentcoursemanagement.repo.UserRepo;
+import com.student.studentcoursemanagement.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private UserRepo userRepository;
+
+    @Mock
+    private PrincipalCacheService principalCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private GoogleTokenVerifierService googleTokenVerifierService;
+
+    @Mock
+    private OtpService otpService;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @InjectMocks
+    private AuthService authService;
+
+    @Test
+    void testGoogleLogin_IssuesOneRefreshToken() throws Exception {
+        // Given
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload().setEmail("learner@example.com");
+        GoogleIdToken idToken = new GoogleIdToken(new JsonWebSignature.Header(), payload, new byte[0], new byte[0]);
+        when(googleTokenVerifierService.verify("id-token", "client-id")).thenReturn(idToken);
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("access-token");
+        when(refreshTokenService.issue(any(User.class))).thenReturn("refresh-token");
+
+        GoogleAuthRequest request = new GoogleAuthRequest();
+        request.setIdToken("id-token");
+        request.setClientId("client-id");
+
+        // When
+        ApiResponse<AuthResponse> response = authService.googleLogin(request);
+
+        // Then: exactly one refresh-token family per login
+        assertEquals(200, response.getStatusCode());
+        assertEquals("refresh-token", response.getData().getRefreshToken());
+        verify(refreshTokenService, times(1)).issue(any(User.class));
+    }
+
+    @Test
+    void testResetPassword_EndsExistingSessions() {
+        // Given
+        User user = User.builder().id("user-1").email("learner@example.com").tokenVersion(3).build();
+        when(otpService.verifyOtp("learner@example.com", "123456")).thenReturn(true);
+        when(userRepository.findByEmail("learner@example.com")).thenReturn(user);
+        when(passwordHashingService.encode("new-secret")).thenReturn("hash");
+
+        ResetPasswordRequest request = new ResetPasswordRequest();
+        request.setEmail("learner@example.com");
+        request.setOtp("123456");
+        request.setNewPassword("new-secret");
+
+        // When
+        ApiResponse<String> response = authService.resetPassword(request);
+
+        // Then: access tokens below the new version and every refresh family are revoked
+        assertEquals(200, response.getStatusCode());
+        assertEquals(4, user.getTokenVersion());
+        verify(tokenRevocationService).revokeBefore("user-1", 4);
+        verify(refreshTokenService).revokeAllForUser("user-1");
+        verify(principalCache).invalidate("user-1");
+    }
+}
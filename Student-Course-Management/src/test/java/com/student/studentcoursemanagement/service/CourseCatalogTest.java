@@ -0,0 +1,135 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.dto.CourseFacetsDTO;
+import com.student.studentcoursemanagement.dto.CourseResponseDTO;
+import com.student.studentcoursemanagement.model.Course;
+import com.student.studentcoursemanagement.model.CourseType;
+import com.student.studentcoursemanagement.model.DifficultyLevel;
+import com.student.studentcoursemanagement.model.Language;
+import com.student.studentcoursemanagement.repo.CourseRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseCatalogTest {
+
+    @Mock
+    private CourseRepo courseRepo;
+
+    @Spy
+    private ResourceVersionService resourceVersions;
+
+    @InjectMocks
+    private CourseCatalog courseCatalog;
+
+    @BeforeEach
+    void setUp() {
+        when(courseRepo.findAll()).thenReturn(List.of(
+                course("1", "Java Basics", "cat-java", DifficultyLevel.BEGINNER, Language.ENGLISH, CourseType.FREE),
+                course("2", "Advanced Java", "cat-java", DifficultyLevel.ADVANCED, Language.HINDI, CourseType.PAID),
+                course("3", "Python Basics", "cat-python", DifficultyLevel.BEGINNER, Language.ENGLISH, CourseType.PAID)));
+    }
+
+    @Test
+    void testFind_CombinesFilters() {
+        assertEquals(List.of("1", "3"), ids(courseCatalog.find(null, DifficultyLevel.BEGINNER, null, null, null)));
+        assertEquals(List.of("3"), ids(courseCatalog.find(null, DifficultyLevel.BEGINNER, Language.ENGLISH,
+                CourseType.PAID, null)));
+        assertEquals(List.of("1", "2"), ids(courseCatalog.find("cat-java", null, null, null, "JAVA")));
+        assertTrue(courseCatalog.find("cat-missing", null, null, null, null).isEmpty());
+
+        // Loaded once, then served from memory
+        verify(courseRepo, times(1)).findAll();
+    }
+
+    @Test
+    void testPutAndRemove_SwapSnapshot() {
+        List<CourseResponseDTO> before = courseCatalog.find(null, null, null, null, null);
+        String etag = resourceVersions.etag(ResourceVersionService.COURSES);
+        assertEquals(2, courseCatalog.countByCategory("cat-java"));
+
+        courseCatalog.put(course("2", "Advanced Java", "cat-java", DifficultyLevel.INTERMEDIATE, Language.HINDI,
+                CourseType.PAID));
+        courseCatalog.remove("1");
+        courseCatalog.put(course("3", "Python Basics", "cat-java", DifficultyLevel.BEGINNER, Language.ENGLISH,
+                CourseType.PAID));
+
+        assertEquals(List.of("2", "3"), ids(courseCatalog.find("cat-java", null, null, null, null)));
+        // Counts follow creates, moves and deletes
+        assertEquals(2, courseCatalog.countByCategory("cat-java"));
+        assertEquals(0, courseCatalog.countByCategory("cat-python"));
+        assertEquals(List.of("2"), ids(courseCatalog.find(null, DifficultyLevel.INTERMEDIATE, null, null, null)));
+        // Readers holding the old snapshot are not affected
+        assertEquals(List.of("1", "2", "3"), ids(before));
+        // Every swap invalidates the listing ETag
+        assertNotEquals(etag, resourceVersions.etag(ResourceVersionService.COURSES));
+    }
+
+    @Test
+    void testReload_BumpsVersionsOnlyOnChange() {
+        courseCatalog.find(null, null, null, null, null);
+        String courses = resourceVersions.etag(ResourceVersionService.COURSES);
+        String categories = resourceVersions.etag(ResourceVersionService.CATEGORIES);
+
+        // Nothing changed since the first load
+        courseCatalog.reload();
+        assertEquals(courses, resourceVersions.etag(ResourceVersionService.COURSES));
+        assertEquals(categories, resourceVersions.etag(ResourceVersionService.CATEGORIES));
+
+        // Another instance renamed a course; category counts are unaffected
+        when(courseRepo.findAll()).thenReturn(List.of(
+                course("1", "Java Basics", "cat-java", DifficultyLevel.BEGINNER, Language.ENGLISH, CourseType.FREE),
+                course("2", "Advanced Java 2", "cat-java", DifficultyLevel.ADVANCED, Language.HINDI, CourseType.PAID),
+                course("3", "Python Basics", "cat-python", DifficultyLevel.BEGINNER, Language.ENGLISH,
+                        CourseType.PAID)));
+        courseCatalog.reload();
+        assertNotEquals(courses, resourceVersions.etag(ResourceVersionService.COURSES));
+        assertEquals(categories, resourceVersions.etag(ResourceVersionService.CATEGORIES));
+        assertEquals(List.of("2"), ids(courseCatalog.find(null, null, null, null, "2")));
+    }
+
+    @Test
+    void testFacets_CountOtherFiltersAndFollowWrites() {
+        CourseFacetsDTO facets = courseCatalog.facets(null, DifficultyLevel.BEGINNER, null, null, null);
+
+        // Difficulty ignores its own filter; the other dimensions apply it
+        assertEquals(Map.of(DifficultyLevel.BEGINNER, 2, DifficultyLevel.ADVANCED, 1), facets.getDifficulties());
+        assertEquals(Map.of("cat-java", 1, "cat-python", 1), facets.getCategories());
+        assertEquals(Map.of(Language.ENGLISH, 2), facets.getLanguages());
+        assertEquals(Map.of(CourseType.FREE, 1, CourseType.PAID, 1), facets.getCourseTypes());
+
+        assertEquals(Map.of("cat-java", 2), courseCatalog.facets(null, null, null, null, "java").getCategories());
+
+        courseCatalog.remove("3");
+        assertEquals(Map.of("cat-java", 1),
+                courseCatalog.facets(null, DifficultyLevel.BEGINNER, null, null, null).getCategories());
+    }
+
+    private static Course course(String id, String title, String categoryId, DifficultyLevel difficulty,
+            Language language, CourseType courseType) {
+        return Course.builder()
+                .id(id)
+                .title(title)
+                .description(title)
+                .categoryId(categoryId)
+                .difficulty(difficulty)
+                .language(language)
+                .courseType(courseType)
+                .build();
+    }
+
+    private static List<String> ids(List<CourseResponseDTO> courses) {
+        return courses.stream().map(CourseResponseDTO::getId).toList();
+    }
+}
@@ -1,9 +1,11 @@
 package com.student.studentcoursemanagement.service;
 
 import com.student.studentcoursemanagement.dto.ApiResponse;
+import com.student.studentcoursemanagement.dto.CoursePageDTO;
 import com.student.studentcoursemanagement.dto.CourseRequestDTO;
 import com.student.studentcoursemanagement.dto.CourseResponseDTO;
 import com.student.studentcoursemanagement.exception.CourseNotFoundException;
+import com.student.studentcoursemanagement.exception.InvalidCourseDataException;
 import com.student.studentcoursemanagement.model.Course;
 import com.student.studentcoursemanagement.model.CourseCategory;
 import com.student.studentcoursemanagement.model.DifficultyLevel;
@@ -14,10 +16,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -54,6 +58,15 @@ class CourseServiceTest {
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
+
+        ResourceVersionService resourceVersions = new ResourceVersionService();
+        CourseCatalog courseCatalog = new CourseCatalog();
+        ReflectionTestUtils.setField(courseCatalog, "courseRepo", courseRepository);
+        ReflectionTestUtils.setField(courseCatalog, "resourceVersions", resourceVersions);
+        ReflectionTestUtils.setField(courseService, "courseCatalog", courseCatalog);
+        ReflectionTestUtils.setField(courseService, "resourceVersions", resourceVersions);
+        ReflectionTestUtils.setField(courseService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(courseService, "maxPageSize", 100);
     }
 
     @Test
@@ -128,6 +141,38 @@ class CourseServiceTest {
         verify(courseRepository, times(1)).findAll();
     }
 
+    @Test
+    void testGetCoursePage_KeysetAndFields() {
+        // Given
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        List<Course> courses = Arrays.asList(
+                Course.builder().id("c").title("Spring").createdAt(base.plusDays(2)).build(),
+                Course.builder().id("a").title("Java").createdAt(base).build(),
+                Course.builder().id("b").title("Python").createdAt(base).build());
+        when(courseRepository.findAll()).thenReturn(courses);
+
+        // When
+        ApiResponse<CoursePageDTO> first = courseService.getCoursePage(null, null, null, null, null, null, 2,
+                "title", true);
+        ApiResponse<CoursePageDTO> second = courseService.getCoursePage(null, null, null, null, null,
+                first.getData().getNextCursor(), 2, "title", false);
+
+        // Then
+        assertEquals(List.of(Map.of("id", "a", "title", "Java"), Map.of("id", "b", "title", "Python")),
+                first.getData().getItems());
+        assertTrue(first.getData().isHasMore());
+        assertEquals(List.of(Map.of("id", "c", "title", "Spring")), second.getData().getItems());
+        assertFalse(second.getData().isHasMore());
+        assertNull(second.getData().getNextCursor());
+        assertNotNull(first.getData().getFacets());
+        assertNull(second.getData().getFacets());
+
+        assertThrows(InvalidCourseDataException.class,
+                () -> courseService.getCoursePage(null, null, null, null, null, null, 2, "password", false));
+        assertThrows(InvalidCourseDataException.class,
+                () -> courseService.getCoursePage(null, null, null, null, null, "not-a-cursor", 2, null, false));
+    }
+
     @Test
     void testDeleteCourse_Success() {
         // Given
@@ -0,0 +1,188 @@
+package com.student.studentcoursemanagement.service;
+
+import com.sendgrid.Response;
+import com.sendgrid.helpers.mail.Mail;
+import com.student.studentcoursemanagement.model.EmailJobStatus;
+import com.student.studentcoursemanagement.model.EmailJobType;
+import com.student.studentcoursemanagement.model.EmailOutboxJob;
+import com.student.studentcoursemanagement.model.EmailPriority;
+import com.student.studentcoursemanagement.model.EmailRecipient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SendGridMailSender sendGridMailSender;
+
+    @Mock
+    private ThreadPoolTaskExecutor workerExecutor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmailOutboxService outbox = new EmailOutboxService();
+
+    @BeforeEach
+    void setUp() {
+        // Workers and the OTP lane run jobs on the calling thread
+        when(workerExecutor.getMaxPoolSize()).thenReturn(2);
+        lenient().doAnswer(inv -> {
+            inv.getArgument(0, Runnable.class).run();
+            return null;
+        }).when(workerExecutor).execute(any(Runnable.class));
+        Executor otpLane = Runnable::run;
+
+        ReflectionTestUtils.setField(outbox, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(outbox, "sendGridMailSender", sendGridMailSender);
+        ReflectionTestUtils.setField(outbox, "workerExecutor", workerExecutor);
+        ReflectionTestUtils.setField(outbox, "otpEmailExecutor", otpLane);
+        ReflectionTestUtils.setField(outbox, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(outbox, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(outbox, "leaseSeconds", 120L);
+        ReflectionTestUtils.setField(outbox, "maxAttempts", 2);
+        ReflectionTestUtils.setField(outbox, "retryBaseSeconds", 30L);
+        ReflectionTestUtils.setField(outbox, "retryMaxSeconds", 3600L);
+        ReflectionTestUtils.setField(outbox, "waiterTimeoutSeconds", 600L);
+        outbox.init();
+    }
+
+    @Test
+    void testPoll_SendsClaimedJobAndFreesWorker() throws Exception {
+        // Given
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(EmailOutboxJob.class))).thenReturn(job(EmailJobType.COURSE_NOTIFICATION, 1), (EmailOutboxJob) null);
+        when(sendGridMailSender.send(any(Mail.class), anyString(), any())).thenReturn(new Response(202, "", null));
+
+        // When
+        outbox.poll();
+
+        // Then
+        assertEquals(EmailJobStatus.SENT, lastStatus());
+        assertEquals(0.0, meterRegistry.get("email.outbox.workers.busy").gauge().value());
+    }
+
+    @Test
+    void testPoll_RetriesThenDeadLettersAndTellsWaiter() throws Exception {
+        // Given: SendGrid keeps failing; two attempts allowed
+        EmailOutboxJob otp = job(EmailJobType.OTP, 1);
+        when(mongoTemplate.insert(any(EmailOutboxJob.class))).thenAnswer(inv -> {
+            otp.setId(inv.getArgument(0, EmailOutboxJob.class).getId());
+            return inv.getArgument(0);
+        });
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(EmailOutboxJob.class))).thenReturn(otp);
+        when(sendGridMailSender.send(any(Mail.class), anyString(), any())).thenReturn(new Response(503, "", null));
+
+        // When: the OTP lane makes the first attempt
+        CompletableFuture<Void> delivered = outbox.enqueueAndDispatch(EmailOutboxJob.builder()
+                .type(EmailJobType.OTP).toEmail("learner@example.com").subject("OTP").contentType("text/plain")
+                .body("123456").build());
+
+        // Then
+        assertEquals(EmailJobStatus.PENDING, lastStatus());
+        assertFalse(delivered.isDone());
+
+        // The poller makes the last attempt
+        otp.setAttempts(2);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(EmailOutboxJob.class))).thenReturn(otp, (EmailOutboxJob) null);
+        outbox.poll();
+
+        assertEquals(EmailJobStatus.DEAD, lastStatus());
+        assertTrue(delivered.isCompletedExceptionally());
+        assertTrue(lastUpdate().getUpdateObject().get("$unset", Document.class).containsKey("body"));
+    }
+
+    @Test
+    void testPoll_SubstitutesOnlyTheJobNameTag() throws Exception {
+        // Given: course content that happens to contain the old fixed tag
+        String nameTag = EmailOutboxService.newNameTag();
+        EmailOutboxJob batch = job(EmailJobType.COURSE_NOTIFICATION, 1);
+        batch.setBody("Hi " + nameTag + ", try -name- templating");
+        batch.setNameTag(nameTag);
+        batch.setRecipients(List.of(EmailRecipient.builder().email("learner@example.com").name("Asha").build()));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(EmailOutboxJob.class))).thenReturn(batch, (EmailOutboxJob) null);
+        when(sendGridMailSender.send(any(Mail.class), anyString(), any())).thenReturn(new Response(202, "", null));
+
+        // When
+        outbox.poll();
+
+        // Then
+        ArgumentCaptor<Mail> mail = ArgumentCaptor.forClass(Mail.class);
+        verify(sendGridMailSender).send(mail.capture(), anyString(), any());
+        assertEquals(Map.of(nameTag, "Asha"), mail.getValue().getPersonalization().get(0).getSubstitutions());
+        assertNotEquals(nameTag, EmailOutboxService.newNameTag());
+    }
+
+    @Test
+    void testPoll_ClaimErrorReturnsPermit() throws Exception {
+        // Given: the claim query fails twice, then the database is back
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(EmailOutboxJob.class)))
+                .thenThrow(new RuntimeException("Mongo down"))
+                .thenThrow(new RuntimeException("Mongo down"))
+                .thenReturn(job(EmailJobType.COURSE_NOTIFICATION, 1), (EmailOutboxJob) null);
+        when(sendGridMailSender.send(any(Mail.class), anyString(), any())).thenReturn(new Response(202, "", null));
+
+        // When
+        outbox.poll();
+        outbox.poll();
+        outbox.poll();
+
+        // Then: both workers are still available and the job went out
+        assertEquals(0.0, meterRegistry.get("email.outbox.workers.busy").gauge().value());
+        assertEquals(EmailJobStatus.SENT, lastStatus());
+    }
+
+    private static EmailOutboxJob job(EmailJobType type, int attempts) {
+        return EmailOutboxJob.builder()
+                .id("job-1")
+                .type(type)
+                .priority(EmailPriority.HIGH)
+                .status(EmailJobStatus.SENDING)
+                .toEmail("learner@example.com")
+                .subject("Hello")
+                .contentType("text/plain")
+                .body("Hi")
+                .attempts(attempts)
+                .leaseUntil(LocalDateTime.now().plusMinutes(2))
+                .build();
+    }
+
+    private Update lastUpdate() {
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(any(Query.class), updates.capture(),
+                eq(EmailOutboxJob.class));
+        return updates.getValue();
+    }
+
+    private EmailJobStatus lastStatus() {
+        return (EmailJobStatus) lastUpdate().getUpdateObject().get("$set", Document.class).get("status");
+    }
+}
@@ -0,0 +1,136 @@
+package com.student.studentcoursemanagement.service;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleTokenVerifierServiceTest {
+
+    private static final String AUDIENCE = "client-id";
+
+    private final GoogleTokenVerifierService verifierService = new GoogleTokenVerifierService();
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    // JWKs the stand-in key server currently publishes
+    private final List<String> publishedJwks = new ArrayList<>();
+
+    private HttpServer keyServer;
+    private KeyPair oldKey;
+    private KeyPair newKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        oldKey = generator.generateKeyPair();
+        newKey = generator.generateKeyPair();
+        publishedJwks.add(jwk("old", oldKey));
+
+        // Stand-in for https://www.googleapis.com/oauth2/v3/certs
+        keyServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        keyServer.createContext("/certs", exchange -> {
+            downloads.incrementAndGet();
+            byte[] body = ("{\"keys\":[" + String.join(",", publishedJwks) + "]}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Cache-Control", "public, max-age=3600");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        keyServer.start();
+
+        ReflectionTestUtils.setField(verifierService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(verifierService, "certsUrl",
+                "http://localhost:" + keyServer.getAddress().getPort() + "/certs");
+        ReflectionTestUtils.setField(verifierService, "minRefetchSeconds", 0L);
+        verifierService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyServer.stop(0);
+    }
+
+    @Test
+    void testVerify_ServedFromCachedKeys() throws Exception {
+        String token = sign("old", oldKey.getPrivate(), AUDIENCE);
+
+        GoogleIdToken first = verifierService.verify(token, AUDIENCE);
+        GoogleIdToken second = verifierService.verify(token, AUDIENCE);
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals("learner@example.com", second.getPayload().getEmail());
+        assertEquals(1, downloads.get());
+    }
+
+    @Test
+    void testVerify_RefetchesKeysOnUnknownKeyId() throws Exception {
+        assertNotNull(verifierService.verify(sign("old", oldKey.getPrivate(), AUDIENCE), AUDIENCE));
+
+        // Google rotates: tokens now carry a key id the cache has never seen
+        publishedJwks.add(jwk("new", newKey));
+        GoogleIdToken rotated = verifierService.verify(sign("new", newKey.getPrivate(), AUDIENCE), AUDIENCE);
+
+        assertNotNull(rotated);
+        assertEquals(2, downloads.get());
+    }
+
+    @Test
+    void testVerify_RejectsBadSignatureAndAudience() throws Exception {
+        // Claims the cached key id but is signed with another key
+        assertNull(verifierService.verify(sign("old", newKey.getPrivate(), AUDIENCE), AUDIENCE));
+        assertNull(verifierService.verify(sign("old", oldKey.getPrivate(), "other-client"), AUDIENCE));
+        assertNull(verifierService.verify("not-a-token", AUDIENCE));
+
+        // Known key id: rejections did not trigger further downloads
+        assertEquals(1, downloads.get());
+    }
+
+    private static String sign(String keyId, PrivateKey privateKey, String audience) throws Exception {
+        JsonWebSignature.Header header = new JsonWebSignature.Header().setAlgorithm("RS256").setKeyId(keyId);
+        long now = System.currentTimeMillis() / 1000;
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload()
+                .setIssuer("https://accounts.google.com")
+                .setAudience(audience)
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + 3600)
+                .setEmail("learner@example.com");
+        return JsonWebSignature.signUsingRsaSha256(privateKey, GsonFactory.getDefaultInstance(), header, payload);
+    }
+
+    private static String jwk(String keyId, KeyPair keyPair) {
+        RSAPublicKey key = (RSAPublicKey) keyPair.getPublic();
+        return "{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"" + keyId + "\",\"n\":\""
+                + base64Url(key.getModulus()) + "\",\"e\":\"" + base64Url(key.getPublicExponent()) + "\"}";
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
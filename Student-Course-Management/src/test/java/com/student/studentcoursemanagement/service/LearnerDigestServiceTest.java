@@ -0,0 +1,126 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.model.EmailOutboxJob;
+import com.student.studentcoursemanagement.model.LearnerDigest;
+import com.student.studentcoursemanagement.model.LearnerDigestCourse;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LearnerDigestServiceTest {
+
+    private static final LocalDate TWO_DAYS_AGO = LocalDate.now().minusDays(2);
+    private static final LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    @Spy
+    private EmailTemplates emailTemplates = new EmailTemplates();
+
+    @InjectMocks
+    private LearnerDigestService learnerDigestService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        emailTemplates.load();
+        // Unsent records in _id order: two days of learner a, one of learner b
+        when(mongoTemplate.find(any(Query.class), eq(LearnerDigest.class))).thenReturn(List.of(
+                digest("a", TWO_DAYS_AGO, Map.of("c1", course("Java Basics", true, false))),
+                digest("a", YESTERDAY, Map.of(
+                        "c1", course("Java Basics II", false, true),
+                        "c2", course("Spring Boot", false, true))),
+                digest("b", YESTERDAY, Map.of("c2", course("Spring Boot", false, true)))));
+    }
+
+    @Test
+    void testSendDigests_OneEmailPerLearnerAcrossDays() {
+        // When
+        learnerDigestService.sendDigests();
+
+        // Then
+        List<EmailOutboxJob> jobs = queuedJobs(2);
+        EmailOutboxJob first = jobs.get(0);
+        assertEquals("a@example.com", first.getToEmail());
+        assertEquals("digest:a:" + YESTERDAY, first.getDedupeKey());
+        assertTrue(first.getBody().contains("from " + TWO_DAYS_AGO + " to " + YESTERDAY));
+        assertTrue(first.getBody().contains("New course: Java Basics II"));
+        assertTrue(first.getBody().contains("Updated: Spring Boot"));
+        assertEquals("b@example.com", jobs.get(1).getToEmail());
+        assertTrue(jobs.get(1).getBody().contains("on " + YESTERDAY));
+
+        assertEquals(List.of(List.of("a:" + TWO_DAYS_AGO, "a:" + YESTERDAY), List.of("b:" + YESTERDAY)),
+                markedSentIds(2));
+    }
+
+    @Test
+    void testSendDigests_FailureSkipsOnlyThatLearner() {
+        // Given
+        doThrow(new RuntimeException("Mongo down")).doNothing().when(emailOutboxService).enqueueAll(anyList());
+
+        // When
+        learnerDigestService.sendDigests();
+
+        // Then: b still gets its digest, a stays unsent for the next run
+        assertEquals("b@example.com", queuedJobs(2).get(1).getToEmail());
+        assertEquals(List.of(List.of("b:" + YESTERDAY)), markedSentIds(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EmailOutboxJob> queuedJobs(int calls) {
+        ArgumentCaptor<List<EmailOutboxJob>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailOutboxService, times(calls)).enqueueAll(captor.capture());
+        List<EmailOutboxJob> jobs = new ArrayList<>();
+        captor.getAllValues().forEach(jobs::addAll);
+        return jobs;
+    }
+
+    private List<List<Object>> markedSentIds(int calls) {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(calls)).updateMulti(captor.capture(), any(Update.class), eq(LearnerDigest.class));
+        List<List<Object>> ids = new ArrayList<>();
+        for (Query query : captor.getAllValues()) {
+            Document id = (Document) query.getQueryObject().get("_id");
+            ids.add(new ArrayList<>((Collection<?>) id.get("$in")));
+        }
+        return ids;
+    }
+
+    private static LearnerDigest digest(String userId, LocalDate day, Map<String, LearnerDigestCourse> courses) {
+        return LearnerDigest.builder()
+                .id(userId + ":" + day)
+                .userId(userId)
+                .email(userId + "@example.com")
+                .username(userId)
+                .day(day)
+                .courses(courses)
+                .build();
+    }
+
+    private static LearnerDigestCourse course(String title, boolean created, boolean updated) {
+        return LearnerDigestCourse.builder().title(title).created(created).updated(updated).build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.dto.OtpDispatchDTO;
+import com.student.studentcoursemanagement.model.EmailOtp;
+import com.student.studentcoursemanagement.model.OtpDeliveryStatus;
+import com.student.studentcoursemanagement.repo.EmailOtpRepo;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OtpServiceTest {
+
+    private static final String EMAIL = "learner@example.com";
+
+    @Mock
+    private EmailOtpRepo otpRepo;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private EmailService emailService;
+
+    // Stand-in for the one email_otps document of EMAIL
+    private EmailOtp stored;
+
+    private OtpStore otpStore;
+    private OtpService otpService;
+
+    @BeforeEach
+    void setUp() {
+        otpStore = store();
+        otpService = service(otpStore);
+        lenient().when(emailService.sendOtpEmail(eq(EMAIL), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        lenient().when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(EmailOtp.class)))
+                .thenAnswer(invocation -> {
+                    Document set = (Document) invocation.getArgument(1, Update.class).getUpdateObject().get("$set");
+                    stored = EmailOtp.builder()
+                            .email(EMAIL)
+                            .otp(set.getString("otp"))
+                            .statusToken(set.getString("statusToken"))
+                            .expiresAt((LocalDateTime) set.get("expiresAt"))
+                            .attemptCount(set.getInteger("attemptCount"))
+                            .deliveryStatus((OtpDeliveryStatus) set.get("deliveryStatus"))
+                            .build();
+                    return null;
+                });
+        lenient().when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(EmailOtp.class))).thenAnswer(invocation -> {
+                    if (stored == null || stored.isVerified()) {
+                        return null;
+                    }
+                    stored.setAttemptCount(stored.getAttemptCount() + 1);
+                    return EmailOtp.builder()
+                            .email(EMAIL)
+                            .otp(stored.getOtp())
+                            .expiresAt(stored.getExpiresAt())
+                            .attemptCount(stored.getAttemptCount())
+                            .build();
+                });
+        lenient().when(otpRepo.findByEmail(EMAIL)).thenAnswer(invocation -> Optional.ofNullable(stored));
+        lenient().doAnswer(invocation -> stored = null).when(otpRepo).deleteByEmail(EMAIL);
+    }
+
+    @Test
+    void testGenerateAndVerify() {
+        // Given
+        OtpDispatchDTO dispatch = otpService.generateAndSendOtp(EMAIL);
+        assertEquals(OtpDeliveryStatus.PENDING, dispatch.getStatus());
+        String otp = stored.getOtp();
+
+        // When / Then
+        assertEquals(OtpDeliveryStatus.SENT, otpService.getDeliveryStatus(EMAIL, dispatch.getStatusToken()));
+        assertFalse(otpService.verifyOtp(EMAIL, wrong(otp)));
+        assertTrue(otpService.verifyOtp(EMAIL, otp));
+        verify(mongoTemplate).updateFirst(any(Query.class),
+                argThat(update -> Boolean.TRUE.equals(((Document) update.getUpdateObject().get("$set")).get("verified"))),
+                eq(EmailOtp.class));
+    }
+
+    @Test
+    void testDeliveryStatus_RequiresStatusToken() {
+        OtpDispatchDTO dispatch = otpService.generateAndSendOtp(EMAIL);
+
+        // Same answer as for an email without an OTP
+        assertNull(otpService.getDeliveryStatus(EMAIL, null));
+        assertNull(otpService.getDeliveryStatus(EMAIL, "guessed"));
+        assertNull(otpService.getDeliveryStatus("other@example.com", dispatch.getStatusToken()));
+
+        // Another instance answers from the stored token
+        assertEquals(OtpDeliveryStatus.PENDING,
+                service(store()).getDeliveryStatus(EMAIL, dispatch.getStatusToken()));
+    }
+
+    @Test
+    void testVerify_AttemptLimitSharedAcrossInstances() {
+        // Given - a second instance sharing the same collection
+        OtpService otherInstance = service(store());
+        otpService.generateAndSendOtp(EMAIL);
+        String otp = stored.getOtp();
+
+        // When - attempts alternate between instances
+        for (int i = 0; i < 5; i++) {
+            assertFalse((i % 2 == 0 ? otpService : otherInstance).verifyOtp(EMAIL, wrong(otp)));
+        }
+
+        // Then
+        assertFalse(otherInstance.verifyOtp(EMAIL, otp));
+        assertNull(stored);
+    }
+
+    @Test
+    void testFlush_KeepsStatusDirtyUntilWritten() {
+        // Given
+        otpStore.put(EMAIL, "123456", "token", LocalDateTime.now().plusMinutes(10));
+        AtomicInteger writes = new AtomicInteger();
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(EmailOtp.class)))
+                .thenAnswer(invocation -> {
+                    if (writes.incrementAndGet() == 1) {
+                        // Delivery outcome changes while the first write is in flight
+                        otpStore.updateDeliveryStatus(EMAIL, "123456", OtpDeliveryStatus.FAILED);
+                    }
+                    return null;
+                })
+                .thenThrow(new RuntimeException("Mongo down"))
+                .thenReturn(null);
+        otpStore.updateDeliveryStatus(EMAIL, "123456", OtpDeliveryStatus.SENT);
+
+        // When
+        otpStore.flush();
+        otpStore.flush();
+        otpStore.flush();
+        otpStore.flush();
+
+        // Then - the change made during the first write and the failed write were both retried
+        verify(mongoTemplate, times(3)).updateFirst(any(Query.class), any(Update.class), eq(EmailOtp.class));
+    }
+
+    private OtpStore store() {
+        OtpStore store = new OtpStore();
+        ReflectionTestUtils.setField(store, "otpRepo", otpRepo);
+        ReflectionTestUtils.setField(store, "mongoTemplate", mongoTemplate);
+        return store;
+    }
+
+    private OtpService service(OtpStore store) {
+        OtpService service = new OtpService();
+        ReflectionTestUtils.setField(service, "otpStore", store);
+        ReflectionTestUtils.setField(service, "emailService", emailService);
+        return service;
+    }
+
+    private static String wrong(String otp) {
+        return "000000".equals(otp) ? "111111" : "000000";
+    }
+}
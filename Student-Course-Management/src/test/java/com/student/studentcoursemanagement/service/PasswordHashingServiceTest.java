@@ -0,0 +1,100 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.exception.PasswordHashingBusyException;
+import com.student.studentcoursemanagement.model.User;
+import com.student.studentcoursemanagement.repo.UserRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService passwordHashingService;
+    private ThreadPoolTaskExecutor executor;
+    private UserRepo userRepository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        userRepository = mock(UserRepo.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        passwordHashingService = new PasswordHashingService();
+        ReflectionTestUtils.setField(passwordHashingService, "passwordEncoder", new BCryptPasswordEncoder(5));
+        ReflectionTestUtils.setField(passwordHashingService, "passwordHashExecutor", executor);
+        ReflectionTestUtils.setField(passwordHashingService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(passwordHashingService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(passwordHashingService, "timeoutMillis", 5000L);
+        passwordHashingService.initMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testEncodeAndMatches_RunOnHashingLane() {
+        String hash = passwordHashingService.encode("secret123");
+
+        assertTrue(passwordHashingService.matches("secret123", hash));
+        assertFalse(passwordHashingService.matches("wrong", hash));
+        assertFalse(passwordHashingService.matches("secret123", null));
+        assertEquals(2, meterRegistry.get("auth.password.hash").tag("op", "matches").timer().count());
+    }
+
+    @Test
+    void testMatches_RejectedWhenLaneSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // Occupy the only thread and the only queue slot
+        executor.execute(blocker);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(blocker);
+
+        try {
+            assertThrows(PasswordHashingBusyException.class,
+                    () -> passwordHashingService.matches("secret123", "$2a$05$invalid"));
+            assertEquals(1.0, meterRegistry.get("auth.password.hash.rejected").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testUpgradeIfNeeded_RehashesWeakerHash() {
+        User user = User.builder().id("u1").password(new BCryptPasswordEncoder(4).encode("secret123")).build();
+        when(userRepository.replacePasswordHash(eq("u1"), eq(user.getPassword()), anyString())).thenReturn(1L);
+
+        passwordHashingService.upgradeIfNeeded(user, "secret123");
+
+        verify(userRepository, timeout(5000)).replacePasswordHash(eq("u1"), eq(user.getPassword()),
+                startsWith("$2a$05$"));
+    }
+}
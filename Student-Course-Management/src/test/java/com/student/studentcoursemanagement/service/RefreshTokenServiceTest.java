@@ -0,0 +1,149 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.dto.ApiResponse;
+import com.student.studentcoursemanagement.dto.AuthResponse;
+import com.student.studentcoursemanagement.model.RefreshToken;
+import com.student.studentcoursemanagement.model.User;
+import com.student.studentcoursemanagement.model.UserRole;
+import com.student.studentcoursemanagement.repo.RefreshTokenRepo;
+import com.student.studentcoursemanagement.repo.UserRepo;
+import com.student.studentcoursemanagement.util.JwtUtil;
+import com.student.studentcoursemanagement.util.RefreshTokenGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepo refreshTokenRepository;
+
+    @Mock
+    private UserRepo userRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Spy
+    private RefreshTokenGenerator refreshTokenGenerator = new RefreshTokenGenerator();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationDays", 30L);
+        ReflectionTestUtils.setField(refreshTokenService, "maxCacheEntries", 100);
+        refreshTokenService.initMetrics();
+
+        user = User.builder().id("u1").email("learner@example.com").build();
+        user.getRoles().add(UserRole.USER);
+
+        lenient().when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void testRotate_IssuesNewPairWithoutReadingUser() {
+        // Given
+        String issued = refreshTokenService.issue(user);
+        when(refreshTokenRepository.markUsed(eq(refreshTokenGenerator.hash(issued)), any())).thenReturn(1L);
+        when(jwtUtil.generateToken(eq("u1"), eq("learner@example.com"), anySet(), eq(0L))).thenReturn("access");
+
+        // When
+        ApiResponse<AuthResponse> response = refreshTokenService.rotate(issued);
+
+        // Then
+        assertTrue(response.isSuccess());
+        assertEquals(200, response.getStatusCode());
+        assertEquals("access", response.getData().getToken());
+        assertNotNull(response.getData().getRefreshToken());
+        assertNotEquals(issued, response.getData().getRefreshToken());
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        assertEquals(saved.getAllValues().get(0).getFamilyId(), saved.getAllValues().get(1).getFamilyId());
+        verifyNoInteractions(userRepository);
+        verify(refreshTokenRepository, never()).findByTokenHash(anyString());
+    }
+
+    @Test
+    void testRotate_AfterAccessTokenLifetimePicksUpRoleChange() throws Exception {
+        // Given: a real revocation record with 1 ms access tokens, so only the refresh lifetime keeps it
+        TokenRevocationService revocations = new TokenRevocationService();
+        ReflectionTestUtils.setField(revocations, "expiration", 1L);
+        ReflectionTestUtils.setField(revocations, "refreshExpirationDays", 30L);
+        ReflectionTestUtils.setField(refreshTokenService, "tokenRevocationService", revocations);
+
+        String issued = refreshTokenService.issue(user);
+        User demoted = User.builder().id("u1").email("learner@example.com").tokenVersion(1).build();
+        revocations.revokeBefore("u1", 1);
+        Thread.sleep(5);
+        revocations.revokeBefore("someone-else", 1); // prunes
+
+        when(refreshTokenRepository.markUsed(eq(refreshTokenGenerator.hash(issued)), any())).thenReturn(1L);
+        when(userRepository.findById("u1")).thenReturn(Optional.of(demoted));
+        when(jwtUtil.generateToken(eq("u1"), eq("learner@example.com"), anySet(), eq(1L))).thenReturn("access");
+
+        // When
+        ApiResponse<AuthResponse> response = refreshTokenService.rotate(issued);
+
+        // Then: minted with the current version and roles, not the ones stored at login
+        assertEquals(200, response.getStatusCode());
+        assertEquals("access", response.getData().getToken());
+        assertTrue(revocations.isRevoked("u1", 0));
+    }
+
+    @Test
+    void testRotate_ReuseRevokesFamily() {
+        // Given
+        String issued = refreshTokenService.issue(user);
+        when(refreshTokenRepository.markUsed(eq(refreshTokenGenerator.hash(issued)), any())).thenReturn(1L);
+        when(jwtUtil.generateToken(anyString(), anyString(), anySet(), anyLong())).thenReturn("access");
+        refreshTokenService.rotate(issued);
+
+        // When
+        ApiResponse<AuthResponse> response = refreshTokenService.rotate(issued);
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertEquals(401, response.getStatusCode());
+        verify(refreshTokenRepository, times(1)).deleteByFamilyId(anyString());
+    }
+
+    @Test
+    void testRotate_UnknownToken() {
+        // Given
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // When
+        ApiResponse<AuthResponse> response = refreshTokenService.rotate("not-a-token");
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertEquals(401, response.getStatusCode());
+        verify(refreshTokenRepository, never()).markUsed(anyString(), any());
+    }
+}
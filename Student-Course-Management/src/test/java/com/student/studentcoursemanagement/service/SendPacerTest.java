@@ -0,0 +1,122 @@
+package com.student.studentcoursemanagement.service;
+
+import com.sendgrid.Client;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.student.studentcoursemanagement.model.EmailPriority;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SendPacerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final SendPacer sendPacer = new SendPacer();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sendPacer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sendPacer, "maxRate", 40d);
+        ReflectionTestUtils.setField(sendPacer, "minRate", 1d);
+        ReflectionTestUtils.setField(sendPacer, "highReserve", 0.25);
+        sendPacer.init();
+    }
+
+    @Test
+    void testTryAcquire_HighPriorityUsesReserve() {
+        long now = System.nanoTime();
+
+        // Normal mail stops at the reserved quarter of the bucket
+        int normal = 0;
+        while (sendPacer.tryAcquire(EmailPriority.NORMAL, now) == 0) {
+            normal++;
+        }
+        assertEquals(30, normal);
+
+        // OTPs still go out at once
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, sendPacer.tryAcquire(EmailPriority.HIGH, now));
+        }
+        assertTrue(sendPacer.tryAcquire(EmailPriority.HIGH, now) > 0);
+    }
+
+    @Test
+    void testOnResponse_HalvesOnThrottleAndRecovers() {
+        long now = System.nanoTime() + SECOND;
+
+        sendPacer.onResponse(429, now);
+        assertEquals(20, sendPacer.currentRate());
+
+        // 429s from the same burst count once
+        sendPacer.onResponse(429, now + SECOND / 2);
+        assertEquals(20, sendPacer.currentRate());
+
+        // Success raises the rate by a tenth of the maximum per second
+        sendPacer.onResponse(202, now + SECOND);
+        assertEquals(24, sendPacer.currentRate());
+        sendPacer.onResponse(202, now + SECOND + 1);
+        assertEquals(24, sendPacer.currentRate());
+    }
+
+    @Test
+    void testSend_AdaptsToProviderLimit() throws Exception {
+        // Stand-in for SendGrid that accepts 10 requests per second and answers 429 above that
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger throttled = new AtomicInteger();
+        long[] window = {System.nanoTime(), 0};
+        HttpServer provider = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        provider.createContext("/v3/mail/send", exchange -> {
+            int status;
+            synchronized (window) {
+                long now = System.nanoTime();
+                if (now - window[0] >= SECOND) {
+                    window[0] = now;
+                    window[1] = 0;
+                }
+                status = ++window[1] <= 10 ? 202 : 429;
+            }
+            (status == 202 ? accepted : throttled).incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        provider.start();
+
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            SendGrid sendGrid = new SendGrid("test-key", new Client(httpClient, true));
+            sendGrid.setHost("localhost:" + provider.getAddress().getPort());
+
+            SendGridMailSender sender = new SendGridMailSender();
+            ReflectionTestUtils.setField(sender, "sendGrid", sendGrid);
+            ReflectionTestUtils.setField(sender, "sendPacer", sendPacer);
+            ReflectionTestUtils.setField(sender, "meterRegistry", new SimpleMeterRegistry());
+
+            Mail mail = new Mail(new Email("noreply@example.com"), "Subject", new Email("learner@example.com"),
+                    new Content("text/plain", "Body"));
+            while (accepted.get() < 25) {
+                Response response = sender.send(mail, "course_notification", EmailPriority.NORMAL);
+                assertTrue(response.getStatusCode() == 202 || response.getStatusCode() == 429);
+            }
+        } finally {
+            provider.stop(0);
+        }
+
+        // The pacer backed off towards the provider's limit instead of hammering it
+        assertTrue(sendPacer.currentRate() < 40);
+        assertTrue(throttled.get() < accepted.get(), "throttled " + throttled.get());
+    }
+}
@@ -0,0 +1,70 @@
+package com.student.studentcoursemanagement.service;
+
+import com.student.studentcoursemanagement.model.RevokedUser;
+import com.student.studentcoursemanagement.repo.RevokedUserRepo;
+import com.student.studentcoursemanagement.repo.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final long EXPIRATION_MS = 3_600_000L;
+
+    @Mock
+    private UserRepo userRepository;
+
+    @Mock
+    private RevokedUserRepo revokedUserRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "expiration", EXPIRATION_MS);
+        ReflectionTestUtils.setField(tokenRevocationService, "refreshExpirationDays", 30L);
+    }
+
+    @Test
+    void testRevokeAll_PersistsTombstone() {
+        tokenRevocationService.revokeAll("user-1");
+
+        ArgumentCaptor<RevokedUser> saved = ArgumentCaptor.forClass(RevokedUser.class);
+        verify(revokedUserRepository).save(saved.capture());
+        assertEquals("user-1", saved.getValue().getId());
+        assertEquals(saved.getValue().getRevokedAt().plusNanos(EXPIRATION_MS * 1_000_000),
+                saved.getValue().getExpiresAt());
+        assertTrue(tokenRevocationService.isRevoked("user-1", 0));
+    }
+
+    @Test
+    void testLoad_DeletedAccountStaysRevokedAfterRestart() {
+        // Given: a tombstone written before the restart (or by another instance)
+        LocalDateTime revokedAt = LocalDateTime.now().minusMinutes(5);
+        when(userRepository.findTokenVersionsUpdatedAfter(any())).thenReturn(List.of());
+        when(revokedUserRepository.findByRevokedAtAfter(any())).thenReturn(List.of(
+                RevokedUser.builder().id("deleted").revokedAt(revokedAt).expiresAt(revokedAt.plusHours(1)).build()));
+
+        // When
+        tokenRevocationService.loadRecentRevocations();
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked("deleted", 0));
+        assertTrue(tokenRevocationService.isRevoked("deleted", 42));
+        assertFalse(tokenRevocationService.isRevoked("other", 0));
+    }
+}
@@ -0,0 +1,59 @@
+package com.student.studentcoursemanagement.util;
+
+import com.student.studentcoursemanagement.dto.CourseResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSearchIndexTest {
+
+    private final CourseSearchIndex index = CourseSearchIndex.of(List.of(
+            course("1", "Spring Boot Microservices", "Build REST services", "Asha Verma", "Backend"),
+            course("2", "Kubernetes for Developers", "Deploy Spring Boot apps on a cluster", "Ravi Kumar", "DevOps"),
+            course("3", "Python Basics", "Learn Python from scratch", "Asha Verma", "Data Science")));
+
+    @Test
+    void testSearch_PrefixTypoAndAllTokens() {
+        assertEquals(Map.of(), index.search("  "));
+        assertEquals(List.of("3"), List.copyOf(index.search("pyth").keySet()));
+        assertEquals(List.of("2"), List.copyOf(index.search("kubernetse").keySet()));
+        assertEquals(List.of("1"), List.copyOf(index.search("asha spring").keySet()));
+        assertTrue(index.search("spring python").isEmpty());
+    }
+
+    @Test
+    void testSearch_TitleOutranksDescription() {
+        Map<String, Float> scores = index.search("spring");
+
+        assertEquals(2, scores.size());
+        assertTrue(scores.get("1") > scores.get("2"));
+    }
+
+    @Test
+    void testWithAndWithout_LeaveOriginalUntouched() {
+        CourseSearchIndex updated = index
+                .with(course("3", "Python for Data Analysis", "Pandas and NumPy", "Asha Verma", "Data Science"))
+                .without("1");
+
+        assertEquals(List.of("3"), List.copyOf(updated.search("pandas").keySet()));
+        assertTrue(updated.search("microservices").isEmpty());
+        assertEquals(2, updated.size());
+
+        assertTrue(index.search("pandas").isEmpty());
+        assertEquals(List.of("1"), List.copyOf(index.search("microservices").keySet()));
+    }
+
+    private static CourseResponseDTO course(String id, String title, String description, String trainerName,
+            String fieldOfWork) {
+        return CourseResponseDTO.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .trainerName(trainerName)
+                .fieldOfWork(fieldOfWork)
+                .build();
+    }
+}
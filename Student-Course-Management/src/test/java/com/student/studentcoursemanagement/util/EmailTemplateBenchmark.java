@@ -0,0 +1,98 @@
+package com.student.studentcoursemanagement.util;
+
+import com.student.studentcoursemanagement.model.Course;
+import com.student.studentcoursemanagement.model.DifficultyLevel;
+import com.student.studentcoursemanagement.model.Language;
+import com.student.studentcoursemanagement.service.EmailTemplates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering one course notification body.
+ *
+ * legacyFormat is the old EmailService builder: String.format over the whole body.
+ * compiledTemplate renders the same body from the template compiled at startup.
+ * Not picked up by surefire; run main() against the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private Course course;
+    private EmailTemplate template;
+
+    @Setup
+    public void setUp() throws Exception {
+        course = Course.builder()
+                .title("Spring Boot Microservices")
+                .trainerName("Asha Verma")
+                .difficulty(DifficultyLevel.BEGINNER)
+                .language(Language.values()[0])
+                .description("Build production-ready services with Spring Boot, MongoDB and Docker. ".repeat(5))
+                .build();
+        EmailTemplates templates = new EmailTemplates();
+        templates.load();
+        template = templates.get("course-created");
+    }
+
+    @Benchmark
+    public void legacyFormat(Blackhole bh) {
+        bh.consume(legacyNewCourseBody("learner", course));
+    }
+
+    @Benchmark
+    public void compiledTemplate(Blackhole bh) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", "learner");
+        values.put("title", course.getTitle());
+        values.put("trainer", course.getTrainerName());
+        values.put("difficulty", course.getDifficulty());
+        values.put("language", course.getLanguage());
+        values.put("description", course.getDescription().length() > 200
+                ? course.getDescription().substring(0, 200) + "..."
+                : course.getDescription());
+        bh.consume(template.render(values));
+    }
+
+    private static String legacyNewCourseBody(String name, Course course) {
+        return String.format(
+                "Hello %s,\n\n" +
+                        "Exciting news! A new course has been added to StudieHub:\n\n" +
+                        "📚 Course: %s\n" +
+                        "👨‍🏫 Trainer: %s\n" +
+                        "📊 Difficulty: %s\n" +
+                        "🌐 Language: %s\n\n" +
+                        "Description:\n%s\n\n" +
+                        "Don't miss out on this opportunity to expand your knowledge!\n\n" +
+                        "Login to StudieHub to explore this course and start learning today.\n\n" +
+                        "Happy Learning!\n" +
+                        "The StudieHub Team",
+                name,
+                course.getTitle(),
+                course.getTrainerName(),
+                course.getDifficulty(),
+                course.getLanguage(),
+                course.getDescription().length() > 200
+                        ? course.getDescription().substring(0, 200) + "..."
+                        : course.getDescription());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,41 @@
+package com.student.studentcoursemanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateTest {
+
+    @Test
+    void testRender_TextTemplate() {
+        EmailTemplate template = EmailTemplate.compile("Hello {{ name }},\nYour OTP is: {{otp}}.", false);
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", "<Asha>");
+        values.put("otp", 123456);
+
+        assertEquals("Hello <Asha>,\nYour OTP is: 123456.", template.render(values));
+        assertEquals("text/plain", template.getContentType());
+    }
+
+    @Test
+    void testRender_HtmlEscapesUnlessRaw() {
+        EmailTemplate template = EmailTemplate.compile("<p>{{title}}</p><table>{{{row}}}</table>{{missing}}", true);
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("title", "Java & <Spring> 'Boot'");
+        values.put("row", "<tr><td>Coupon</td></tr>");
+
+        assertEquals("<p>Java &amp; &lt;Spring&gt; &#39;Boot&#39;</p><table><tr><td>Coupon</td></tr></table>",
+                template.render(values));
+    }
+
+    @Test
+    void testCompile_RejectsUnclosedPlaceholder() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("Hello {{name", false));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("Hello {{ }}", false));
+    }
+}
@@ -0,0 +1,74 @@
+package com.student.studentcoursemanagement.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a Bearer token in JwtAuthenticationFilter.
+ *
+ * legacyFilterPath reproduces the old filter: validateToken + extractEmail + extractUserId,
+ * each building a new key and parser and verifying the HMAC again.
+ * parseOnce is the current filter: one verification against the cached parser.
+ * Not picked up by surefire; run main() against the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-sec";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        jwtUtil.init();
+        token = jwtUtil.generateToken("64f1c0ffee0000000000abcd", "learner@example.com");
+    }
+
+    @Benchmark
+    public void legacyFilterPath(Blackhole bh) {
+        bh.consume(legacyParse(token).getExpiration());
+        bh.consume(legacyParse(token).getSubject());
+        bh.consume(legacyParse(token).get("userId", String.class));
+    }
+
+    @Benchmark
+    public void parseOnce(Blackhole bh) {
+        Claims claims = jwtUtil.parseVerifiedClaims(token);
+        bh.consume(claims.getSubject());
+        bh.consume(claims.get("userId", String.class));
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
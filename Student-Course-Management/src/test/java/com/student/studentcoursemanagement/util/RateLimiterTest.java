@@ -0,0 +1,34 @@
+package com.student.studentcoursemanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final RateLimiter rateLimiter = new RateLimiter();
+
+    @Test
+    void testTryAcquire_BurstThenRefill() {
+        long now = 0;
+
+        // Full bucket admits the whole budget at once
+        for (int i = 0; i < 6; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("login:ip:10.0.0.1", 6, now));
+        }
+
+        // 6 per minute refills one token every 10 seconds
+        assertEquals(10, rateLimiter.tryAcquire("login:ip:10.0.0.1", 6, now));
+        assertEquals(5, rateLimiter.tryAcquire("login:ip:10.0.0.1", 6, now + 5 * SECOND));
+        assertEquals(0, rateLimiter.tryAcquire("login:ip:10.0.0.1", 6, now + 10 * SECOND));
+    }
+
+    @Test
+    void testTryAcquire_KeysAreIndependent() {
+        assertEquals(0, rateLimiter.tryAcquire("otp:email:a@example.com", 1, 0));
+        assertTrue(rateLimiter.tryAcquire("otp:email:a@example.com", 1, 0) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("otp:email:b@example.com", 1, 0));
+    }
+}
@@ -0,0 +1,98 @@
+package com.student.studentcoursemanagement.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.studentcoursemanagement.dto.ApiResponse;
+import com.student.studentcoursemanagement.dto.CourseResponseDTO;
+import com.student.studentcoursemanagement.model.Course;
+import com.student.studentcoursemanagement.model.CourseType;
+import com.student.studentcoursemanagement.model.DifficultyLevel;
+import com.student.studentcoursemanagement.model.Language;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the body of one course listing response (200 courses).
+ *
+ * serialize is the plain Jackson path every request used to take.
+ * serializeAndGzip adds the compression a gzip-capable client would otherwise get from the server.
+ * cachedBytes is a SerializedResponseCache hit: a map lookup returning the stored bytes.
+ * Not picked up by surefire; run main() against the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializedResponseBenchmark {
+
+    private static final String KEY = "/api/courses";
+    private static final String ETAG = "W/\"courses-1\"";
+
+    private ObjectMapper objectMapper;
+    private List<CourseResponseDTO> courses;
+    private SerializedResponseCache cache;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        courses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            courses.add(CourseResponseDTO.fromEntity(Course.builder()
+                    .id(String.format("%024d", i))
+                    .title("Spring Boot Microservices " + i)
+                    .description("Build production-ready services with Spring Boot, MongoDB and Docker. ".repeat(3))
+                    .categoryId("cat-" + (i % 8))
+                    .difficulty(DifficultyLevel.values()[i % DifficultyLevel.values().length])
+                    .language(Language.values()[i % Language.values().length])
+                    .courseType(CourseType.FREE)
+                    .trainerName("Asha Verma")
+                    .fieldOfWork("Backend Engineering")
+                    .videoIds(List.of("v1", "v2", "v3"))
+                    .build()));
+        }
+
+        cache = new SerializedResponseCache();
+        ReflectionTestUtils.setField(cache, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxEntries", 256);
+        cache.init();
+        cache.put(KEY, ETAG, response());
+    }
+
+    @Benchmark
+    public void serialize(Blackhole bh) throws Exception {
+        bh.consume(objectMapper.writeValueAsBytes(response()));
+    }
+
+    @Benchmark
+    public void serializeAndGzip(Blackhole bh) {
+        bh.consume(SerializedResponseCache.encode(objectMapper, ETAG, response()).gzip());
+    }
+
+    @Benchmark
+    public void cachedBytes(Blackhole bh) {
+        bh.consume(cache.get(KEY, ETAG).gzip());
+    }
+
+    private ApiResponse<List<CourseResponseDTO>> response() {
+        return new ApiResponse<>(true, "Courses retrieved successfully", courses, 200);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SerializedResponseBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.student.studentcoursemanagement.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.studentcoursemanagement.dto.ApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedResponseCacheTest {
+
+    private final SerializedResponseCache cache = new SerializedResponseCache();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxEntries", 16);
+        cache.init();
+    }
+
+    @Test
+    void testServe_CachesBothEncodingsUntilEtagChanges() throws IOException {
+        // Given
+        ResponseEntity<?> first = serve("W/\"courses-1\"", null, null);
+        ResponseEntity<?> second = serve("W/\"courses-1\"", null, "gzip, deflate");
+
+        // Then: loaded once, gzip bytes decode to the identity bytes
+        assertEquals(1, loads.get());
+        byte[] identity = (byte[]) first.getBody();
+        assertNull(first.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", second.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream((byte[]) second.getBody()))) {
+            assertArrayEquals(identity, in.readAllBytes());
+        }
+        assertEquals(12, objectMapper.readTree(identity).get("data").size());
+
+        // A write changes the ETag and forces one re-serialization
+        serve("W/\"courses-2\"", null, null);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testAcceptsGzip_HonoursQualityValues() {
+        assertTrue(SerializedResponseCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(SerializedResponseCache.acceptsGzip("x-gzip"));
+        assertTrue(SerializedResponseCache.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(SerializedResponseCache.acceptsGzip("*"));
+        assertFalse(SerializedResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(SerializedResponseCache.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(SerializedResponseCache.acceptsGzip("*;q=0"));
+        assertFalse(SerializedResponseCache.acceptsGzip("identity, x-gzipped"));
+        assertFalse(SerializedResponseCache.acceptsGzip("gzip;q=abc"));
+        assertFalse(SerializedResponseCache.acceptsGzip(null));
+
+        ResponseEntity<?> refused = serve("W/\"courses-1\"", null, "gzip;q=0, identity");
+        assertNull(refused.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void testServe_NotModifiedSkipsLoader() {
+        ResponseEntity<?> response = serve("W/\"courses-1\"", "W/\"courses-1\"", null);
+
+        assertEquals(304, response.getStatusCode().value());
+        assertEquals(0, loads.get());
+    }
+
+    private ResponseEntity<?> serve(String etag, String ifNoneMatch, String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return cache.serve(new ServletWebRequest(request, new MockHttpServletResponse()), etag,
+                CacheControl.noCache(), () -> {
+                    loads.incrementAndGet();
+                    List<String> titles = Collections.nCopies(12, "Spring Boot Microservices ".repeat(8));
+                    return new ApiResponse<>(true, "Courses retrieved successfully", titles, 200);
+                });
+    }
+}